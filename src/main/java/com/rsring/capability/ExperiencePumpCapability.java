@@ -66,20 +66,29 @@ public class ExperiencePumpCapability implements IExperiencePumpCapability {
         return max;
     }
 
-    private int xpStored = 0;
+    private long xpStored = 0;
     private int capacityLevels = DEFAULT_CAPACITY_LEVELS;
     /** Fixed capacity for special tanks. */
     private int fixedMaxXp = 0;
     private int mode = getConfiguredDefaultMode();
     private int retainLevel = getConfiguredDefaultRetainLevel();
     private boolean useForMending = getConfiguredDefaultMending();
+    // 上次应用的控制器设置（不保存，重新加载后由控制器重新应用一次）
+    private int appliedControllerId = 0;
+    private int appliedSettingsVersion = -1;
+    // 已存经验或容量变化时的回调（不保存）
+    private Runnable changeListener;
 
     @Override
-    public int getXpStored() { return xpStored; }
+    public long getXpStored() { return xpStored; }
 
     @Override
-    public void setXpStored(int xp) {
-        this.xpStored = Math.max(0, Math.min(xp, getMaxXp()));
+    public void setXpStored(long xp) {
+        long newXp = Math.max(0, Math.min(xp, getMaxXp()));
+        if (newXp != this.xpStored) {
+            this.xpStored = newXp;
+            notifyChanged();
+        }
     }
 
     @Override
@@ -87,29 +96,23 @@ public class ExperiencePumpCapability implements IExperiencePumpCapability {
 
     @Override
     public void setCapacityLevels(int levels) {
-        int currentXp = this.xpStored;
+        long currentXp = this.xpStored;
         int maxLevels = getConfiguredMaxCapacityLevels();
         this.capacityLevels = Math.max(MIN_CAPACITY_LEVELS, Math.min(levels, maxLevels));
         this.xpStored = Math.max(0, Math.min(currentXp, getMaxXp()));
+        notifyChanged();
     }
 
     @Override
-    public int getMaxXp() {
+    public long getMaxXp() {
         // Fixed capacity for special tanks
         if (fixedMaxXp > 0) {
             return fixedMaxXp;
         }
         // Standard tanks: BASE_XP_PER_LEVEL * 2^(n-1)
         // Example: level 1=1000, 2=2000, 3=4000, 4=8000...
-        try {
-            long maxCapacity = (long) BASE_XP_PER_LEVEL * (1L << (capacityLevels - 1));
-            if (maxCapacity > Integer.MAX_VALUE) {
-                return Integer.MAX_VALUE;
-            }
-            return (int) maxCapacity;
-        } catch (Exception e) {
-            return Integer.MAX_VALUE;
-        }
+        // 等级上限为 25，最大约 1.6e10，long 不会溢出
+        return (long) BASE_XP_PER_LEVEL << (capacityLevels - 1);
     }
 
     @Override
@@ -117,7 +120,9 @@ public class ExperiencePumpCapability implements IExperiencePumpCapability {
 
     @Override
     public void setMode(int mode) {
-        this.mode = (mode >= MODE_MIN && mode <= MODE_MAX) ? mode : MODE_OFF;
+        int newMode = (mode >= MODE_MIN && mode <= MODE_MAX) ? mode : MODE_OFF;
+        if (newMode != this.mode) clearAppliedSettings();
+        this.mode = newMode;
     }
 
     @Override
@@ -125,7 +130,9 @@ public class ExperiencePumpCapability implements IExperiencePumpCapability {
 
     @Override
     public void setRetainLevel(int level) {
-        this.retainLevel = Math.max(MIN_RETAIN_LEVEL, level);
+        int newLevel = Math.max(MIN_RETAIN_LEVEL, level);
+        if (newLevel != this.retainLevel) clearAppliedSettings();
+        this.retainLevel = newLevel;
     }
 
     @Override
@@ -133,9 +140,35 @@ public class ExperiencePumpCapability implements IExperiencePumpCapability {
 
     @Override
     public void setUseForMending(boolean use) {
+        if (use != this.useForMending) clearAppliedSettings();
         this.useForMending = use;
     }
 
+    @Override
+    public boolean isSettingsApplied(int controllerId, int version) {
+        return appliedControllerId == controllerId && appliedSettingsVersion == version;
+    }
+
+    @Override
+    public void markSettingsApplied(int controllerId, int version) {
+        this.appliedControllerId = controllerId;
+        this.appliedSettingsVersion = version;
+    }
+
+    private void clearAppliedSettings() {
+        this.appliedControllerId = 0;
+        this.appliedSettingsVersion = -1;
+    }
+
+    @Override
+    public void setChangeListener(Runnable listener) {
+        this.changeListener = listener;
+    }
+
+    private void notifyChanged() {
+        if (changeListener != null) changeListener.run();
+    }
+
     @Override
     public boolean addCapacityLevels(int levels) {
         int maxLevels = getConfiguredMaxCapacityLevels();
@@ -151,18 +184,20 @@ public class ExperiencePumpCapability implements IExperiencePumpCapability {
     @Override
     public int addXp(int amount) {
         if (amount <= 0) return 0;
-        int maxAdd = Math.min(amount, getMaxXp() - xpStored);
+        int maxAdd = (int) Math.min(amount, getMaxXp() - xpStored);
         if (maxAdd <= 0) return 0;
         xpStored += maxAdd;
+        notifyChanged();
         return maxAdd;
     }
 
     @Override
     public int takeXp(int amount) {
         if (amount <= 0) return 0;
-        int take = Math.min(amount, xpStored);
+        int take = (int) Math.min(amount, xpStored);
         if (take <= 0) return 0;
         xpStored -= take;
+        notifyChanged();
         return take;
     }
 
@@ -178,13 +213,31 @@ public class ExperiencePumpCapability implements IExperiencePumpCapability {
         return c;
     }
 
+    /**
+     * 写入经验值：能放进 int 时仍写 TAG_Int，与旧存档格式一致；超出时写 TAG_Long。
+     */
+    public static void writeXp(NBTTagCompound tag, String key, long xp) {
+        if (xp <= Integer.MAX_VALUE) {
+            tag.setInteger(key, (int) xp);
+        } else {
+            tag.setLong(key, xp);
+        }
+    }
+
+    /**
+     * 读取经验值，兼容旧存档的 TAG_Int 与新的 TAG_Long（getLong 接受任意数值标签）。
+     */
+    public static long readXp(NBTTagCompound tag, String key) {
+        return Math.max(0L, tag.getLong(key));
+    }
+
     public static class Storage implements Capability.IStorage<IExperiencePumpCapability> {
         @Override
         public NBTBase writeNBT(Capability<IExperiencePumpCapability> capability, IExperiencePumpCapability instance, EnumFacing side) {
             if (instance == null) return new NBTTagCompound();
 
             NBTTagCompound tag = new NBTTagCompound();
-            tag.setInteger(XP_NBT_KEY, instance.getXpStored());
+            writeXp(tag, XP_NBT_KEY, instance.getXpStored());
             tag.setInteger(CAPACITY_LEVELS_NBT_KEY, instance.getCapacityLevels());
             if (instance instanceof ExperiencePumpCapability) {
                 tag.setInteger(FIXED_MAX_XP_NBT_KEY, ((ExperiencePumpCapability) instance).fixedMaxXp);
@@ -203,9 +256,11 @@ public class ExperiencePumpCapability implements IExperiencePumpCapability {
             // Set capacity before XP to avoid truncation
             instance.setCapacityLevels(tag.hasKey(CAPACITY_LEVELS_NBT_KEY) ? tag.getInteger(CAPACITY_LEVELS_NBT_KEY) : DEFAULT_CAPACITY_LEVELS);
             if (instance instanceof ExperiencePumpCapability && tag.hasKey(FIXED_MAX_XP_NBT_KEY)) {
-                ((ExperiencePumpCapability) instance).fixedMaxXp = tag.getInteger(FIXED_MAX_XP_NBT_KEY);
+                ExperiencePumpCapability impl = (ExperiencePumpCapability) instance;
+                impl.fixedMaxXp = tag.getInteger(FIXED_MAX_XP_NBT_KEY);
+                impl.notifyChanged();
             }
-            instance.setXpStored(tag.hasKey(XP_NBT_KEY) ? tag.getInteger(XP_NBT_KEY) : 0);
+            instance.setXpStored(readXp(tag, XP_NBT_KEY));
             instance.setMode(tag.hasKey(MODE_NBT_KEY) ? tag.getInteger(MODE_NBT_KEY) : getConfiguredDefaultMode());
             instance.setRetainLevel(tag.hasKey(RETAIN_LEVEL_NBT_KEY) ? tag.getInteger(RETAIN_LEVEL_NBT_KEY) : getConfiguredDefaultRetainLevel());
             instance.setUseForMending(tag.hasKey(MENDING_NBT_KEY) ? tag.getBoolean(MENDING_NBT_KEY) : getConfiguredDefaultMending());
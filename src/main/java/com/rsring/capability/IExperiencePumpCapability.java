@@ -17,15 +17,15 @@ public interface IExperiencePumpCapability {
 
     /**
      * 获取当前存储的经验点数
-     * @return 当前存储的经验点数
+     * @return 当前存储的经验点数（高容量储罐可超过 int 范围）
      */
-    int getXpStored();
+    long getXpStored();
 
     /**
      * 设置当前存储的经验点数
      * @param xp 要设置的经验点数
      */
-    void setXpStored(int xp);
+    void setXpStored(long xp);
 
     /**
      * 获取容量等级数（末影珍珠升级增加）
@@ -43,7 +43,23 @@ public interface IExperiencePumpCapability {
      * 获取最大可存储经验点数
      * @return 最大可存储经验点数 = BASE_XP_PER_LEVEL * 2^(capacityLevels-1)，即1级=1000, 2级=2000, 3级=4000...
      */
-    int getMaxXp();
+    long getMaxXp();
+
+    /**
+     * 获取剩余可存入的经验点数，截断到 int 范围（与玩家交换经验时使用，玩家经验本身不超过 int）
+     * @return 剩余可存入的经验点数
+     */
+    default int getFreeSpace() {
+        return (int) Math.min(Integer.MAX_VALUE, Math.max(0L, getMaxXp() - getXpStored()));
+    }
+
+    /**
+     * 获取可一次取出的经验点数，截断到 int 范围
+     * @return 可取出的经验点数
+     */
+    default int getXpAvailable() {
+        return (int) Math.min(Integer.MAX_VALUE, getXpStored());
+    }
 
     /**
      * 获取当前模式
@@ -81,6 +97,28 @@ public interface IExperiencePumpCapability {
      */
     void setUseForMending(boolean use);
 
+    /**
+     * 检查储罐上次应用的是否为指定控制器的指定设置版本
+     * @param controllerId 控制器标识
+     * @param version 控制器设置版本
+     * @return 如果已应用且之后设置未被修改则返回true
+     */
+    boolean isSettingsApplied(int controllerId, int version);
+
+    /**
+     * 记录储罐已应用的控制器设置版本；模式、保留等级或修补开关被其他途径修改时自动清除
+     * @param controllerId 控制器标识
+     * @param version 控制器设置版本
+     */
+    void markSettingsApplied(int controllerId, int version);
+
+    /**
+     * 设置已存经验或容量变化时的回调（不保存），控制器的分配顺序据此只更新变化的储罐
+     * @param listener 回调，为 null 时移除
+     */
+    default void setChangeListener(Runnable listener) {
+    }
+
     /**
      * 增加容量等级（末影珍珠右键）
      * @param levels 要增加的等级数
@@ -35,4 +35,13 @@ public interface IRsRingCapability {
     /** 9 格过滤槽：仅读取匹配，不消耗物品。slot 0~8 */
     void setFilterSlot(int slot, String itemRegistryName);
     String getFilterSlot(int slot);
+
+    /** 预编译的过滤器（过滤槽 + 配置默认列表），过滤设置或配置变化后自动重建 */
+    RingFilterMatcher getFilterMatcher();
+
+    /** 目标不可用或已满时暂存物品的收件箱 */
+    RingInbox getInbox();
+
+    /** 自适应吸收间隔 */
+    RingSweepTimer getSweepTimer();
 }
\ No newline at end of file
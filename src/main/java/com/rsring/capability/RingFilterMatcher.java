@@ -0,0 +1,86 @@
+package com.rsring.capability;
+
+import net.minecraft.item.Item;
+import net.minecraft.item.ItemStack;
+import net.minecraft.util.ResourceLocation;
+import net.minecraftforge.fml.common.registry.ForgeRegistries;
+
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.Set;
+
+/**
+ * 预编译的戒指过滤器：把 9 个过滤槽与配置默认列表解析为按 Item 身份比较的集合，
+ * 每个物品的检查只需一次 O(1) 查找。过滤槽变化或配置重载时重新编译。
+ */
+public final class RingFilterMatcher {
+
+    /** 配置版本号，ConfigChangedEvent 触发时递增，使所有已编译的过滤器失效 */
+    private static int configRevision = 0;
+
+    private final Set<Item> items;
+    private final boolean whitelistMode;
+    private final int revision;
+
+    private RingFilterMatcher(Set<Item> items, boolean whitelistMode, int revision) {
+        this.items = items;
+        this.whitelistMode = whitelistMode;
+        this.revision = revision;
+    }
+
+    public static void invalidateAll() {
+        configRevision++;
+    }
+
+    public static RingFilterMatcher compile(IRsRingCapability cap) {
+        boolean whitelistMode = cap.isWhitelistMode();
+        Set<Item> items = Collections.newSetFromMap(new IdentityHashMap<>());
+
+        String[] defaults = whitelistMode
+            ? com.rsring.config.RsRingConfig.absorbRing.defaultWhitelistItems
+            : com.rsring.config.RsRingConfig.absorbRing.defaultBlacklistItems;
+        if (defaults != null) {
+            for (String name : defaults) {
+                addItem(items, name);
+            }
+        }
+        for (int i = 0; i < 9; i++) {
+            addItem(items, cap.getFilterSlot(i));
+        }
+
+        return new RingFilterMatcher(items, whitelistMode, configRevision);
+    }
+
+    private static void addItem(Set<Item> items, String name) {
+        if (name == null) return;
+        String formatted = name.trim();
+        if (formatted.isEmpty()) return;
+        if (!formatted.contains(":")) {
+            formatted = "minecraft:" + formatted;
+        }
+        ResourceLocation id = new ResourceLocation(formatted);
+        if (ForgeRegistries.ITEMS.containsKey(id)) {
+            Item item = ForgeRegistries.ITEMS.getValue(id);
+            if (item != null) items.add(item);
+        }
+    }
+
+    public boolean isStale() {
+        return revision != configRevision;
+    }
+
+    public boolean isWhitelistMode() {
+        return whitelistMode;
+    }
+
+    /** 过滤列表是否为空（白名单模式下为空表示不吸收任何物品） */
+    public boolean isEmpty() {
+        return items.isEmpty();
+    }
+
+    /** @return true 表示该物品应被过滤（不吸收） */
+    public boolean shouldFilter(ItemStack stack) {
+        boolean isInList = items.contains(stack.getItem());
+        return whitelistMode ? !isInList : isInList;
+    }
+}
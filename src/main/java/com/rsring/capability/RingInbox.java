@@ -0,0 +1,178 @@
+package com.rsring.capability;
+
+import net.minecraft.item.ItemStack;
+import net.minecraft.nbt.NBTTagCompound;
+import net.minecraft.nbt.NBTTagList;
+
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+import java.util.function.ToIntFunction;
+
+/**
+ * 戒指收件箱：绑定目标未加载时暂存吸收的物品，目标恢复后批量送出；目标拒收的物品类型不进入收件箱。
+ * 容量按物品总数计算（配置 inboxCapacity），随戒指能力一起保存。
+ * 送出失败时按指数退避延后重试，避免每次扫描都去尝试已满的目标；
+ * 目标可用却连续 {@link #MAX_REJECTIONS} 次拒收的堆叠被移出收件箱，不再占用容量。
+ */
+public class RingInbox {
+
+    /** 首次失败后的重试间隔（tick） */
+    private static final int MIN_BACKOFF = 20;
+    /** 最大重试间隔（tick） */
+    private static final int MAX_BACKOFF = 1200;
+    /** 同一堆叠连续被拒收多少次后移出收件箱 */
+    public static final int MAX_REJECTIONS = 3;
+    /** inserter 的返回值：本次未尝试插入（如命中拒收缓存），不计入拒收次数 */
+    public static final int NOT_ATTEMPTED = -1;
+
+    private final List<ItemStack> stacks = new ArrayList<>();
+    private int totalCount = 0;
+
+    // 退避状态不保存，重新进入世界后立即重试
+    private long retryAt = 0;
+    private int backoff = 0;
+    // 上次写入物品 NBT 之后内容是否变化
+    private boolean changed = false;
+    // 各堆叠连续被拒收的次数，不保存
+    private final Map<ItemStack, Integer> rejections = new IdentityHashMap<>();
+
+    public static int getCapacity() {
+        return Math.max(0, com.rsring.config.RsRingConfig.absorbRing.inboxCapacity);
+    }
+
+    public boolean isEmpty() {
+        return stacks.isEmpty();
+    }
+
+    public boolean isFull() {
+        return totalCount >= getCapacity();
+    }
+
+    public int getTotalCount() {
+        return totalCount;
+    }
+
+    /**
+     * 放入物品，同类物品合并到已有的堆叠中。
+     *
+     * @return 实际放入的数量
+     */
+    public int offer(ItemStack stack) {
+        if (stack.isEmpty()) return 0;
+        int accepted = Math.min(stack.getCount(), getCapacity() - totalCount);
+        if (accepted <= 0) return 0;
+
+        int remaining = accepted;
+        for (ItemStack stored : stacks) {
+            if (remaining <= 0) break;
+            if (!ItemStack.areItemsEqual(stored, stack) || !ItemStack.areItemStackTagsEqual(stored, stack)) continue;
+            int space = stored.getMaxStackSize() - stored.getCount();
+            if (space <= 0) continue;
+            int moved = Math.min(space, remaining);
+            stored.grow(moved);
+            remaining -= moved;
+        }
+        while (remaining > 0) {
+            ItemStack split = stack.copy();
+            split.setCount(Math.min(remaining, Math.max(1, stack.getMaxStackSize())));
+            stacks.add(split);
+            remaining -= split.getCount();
+        }
+
+        totalCount += accepted;
+        changed = true;
+        return accepted;
+    }
+
+    /**
+     * 依次送出暂存的物品，连续 {@link #MAX_REJECTIONS} 次实际尝试都被拒收的堆叠移出收件箱交给 evicted。
+     *
+     * @param inserter 接收一份副本，返回实际插入的数量；未尝试插入时返回 {@link #NOT_ATTEMPTED}
+     * @param evicted 接收被移出的堆叠
+     * @return 本次送出的物品总数
+     */
+    public int flush(ToIntFunction<ItemStack> inserter, Consumer<ItemStack> evicted) {
+        int moved = 0;
+        Iterator<ItemStack> it = stacks.iterator();
+        while (it.hasNext()) {
+            ItemStack stored = it.next();
+            int result = inserter.applyAsInt(stored.copy());
+            if (result == NOT_ATTEMPTED) continue;
+            int inserted = Math.min(stored.getCount(), Math.max(0, result));
+            if (inserted <= 0) {
+                if (rejections.merge(stored, 1, Integer::sum) >= MAX_REJECTIONS) {
+                    rejections.remove(stored);
+                    it.remove();
+                    totalCount -= stored.getCount();
+                    changed = true;
+                    evicted.accept(stored);
+                }
+                continue;
+            }
+            rejections.remove(stored);
+            stored.shrink(inserted);
+            totalCount -= inserted;
+            changed = true;
+            moved += inserted;
+            if (stored.isEmpty()) it.remove();
+        }
+        return moved;
+    }
+
+    public boolean isChanged() {
+        return changed;
+    }
+
+    public void markSaved() {
+        changed = false;
+    }
+
+    public boolean canRetry(long worldTime) {
+        return worldTime >= retryAt;
+    }
+
+    public void recordSuccess() {
+        backoff = 0;
+        retryAt = 0;
+    }
+
+    public void recordFailure(long worldTime) {
+        backoff = backoff == 0 ? MIN_BACKOFF : Math.min(backoff * 2, MAX_BACKOFF);
+        retryAt = worldTime + backoff;
+    }
+
+    public void copyFrom(RingInbox other) {
+        stacks.clear();
+        rejections.clear();
+        for (ItemStack stack : other.stacks) {
+            stacks.add(stack.copy());
+        }
+        totalCount = other.totalCount;
+        changed = true;
+    }
+
+    public NBTTagList writeNBT() {
+        NBTTagList list = new NBTTagList();
+        for (ItemStack stack : stacks) {
+            list.appendTag(stack.writeToNBT(new NBTTagCompound()));
+        }
+        return list;
+    }
+
+    public void readNBT(NBTTagList list) {
+        stacks.clear();
+        rejections.clear();
+        totalCount = 0;
+        for (int i = 0; i < list.tagCount(); i++) {
+            ItemStack stack = new ItemStack(list.getCompoundTagAt(i));
+            if (stack.isEmpty()) continue;
+            stacks.add(stack);
+            totalCount += stack.getCount();
+        }
+        changed = true;
+    }
+}
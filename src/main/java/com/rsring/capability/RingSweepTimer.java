@@ -0,0 +1,46 @@
+package com.rsring.capability;
+
+/**
+ * 戒指的自适应吸收间隔。
+ * 连续扫描未发现掉落物时间隔按指数增长（不超过 maxAbsorptionInterval），
+ * 一旦发现掉落物立即回到最小间隔 absorptionInterval。状态不保存。
+ */
+public class RingSweepTimer {
+
+    private long nextSweepAt = 0;
+    private int interval = 0;
+
+    private static int getMinInterval() {
+        return Math.max(1, com.rsring.config.RsRingConfig.absorbRing.absorptionInterval);
+    }
+
+    private static int getMaxInterval() {
+        return Math.max(getMinInterval(), com.rsring.config.RsRingConfig.absorbRing.maxAbsorptionInterval);
+    }
+
+    public boolean isDue(long worldTime) {
+        return worldTime >= nextSweepAt;
+    }
+
+    /**
+     * 发起一次扫描，按当前间隔安排下一次扫描。
+     */
+    public void schedule(long worldTime) {
+        interval = Math.max(getMinInterval(), Math.min(interval, getMaxInterval()));
+        nextSweepAt = worldTime + interval;
+    }
+
+    /**
+     * 根据扫描结果调整间隔：发现掉落物则回到最小间隔，否则翻倍。
+     */
+    public void recordSweep(long worldTime, boolean foundItems) {
+        int min = getMinInterval();
+        int max = getMaxInterval();
+        if (foundItems || interval < min) {
+            interval = min;
+        } else {
+            interval = (int) Math.min((long) interval * 2, max);
+        }
+        nextSweepAt = worldTime + interval;
+    }
+}
@@ -27,6 +27,13 @@ public class RsRingCapability implements IRsRingCapability {
 
     private List<String> blacklistItems = new ArrayList<>();
     private boolean whitelistMode = !com.rsring.config.RsRingConfig.absorbRing.useBlacklistModeByDefault;
+    private RingFilterMatcher filterMatcher;
+    private final RingInbox inbox = new RingInbox();
+    private final RingSweepTimer sweepTimer = new RingSweepTimer();
+
+    // 上次写入物品 NBT 之后是否有绑定、开关或过滤设置的变化；能量与收件箱单独比较
+    private boolean dirty = true;
+    private int syncedEnergy = -1;
 
     // Constructor
     public RsRingCapability() {
@@ -39,6 +46,8 @@ public class RsRingCapability implements IRsRingCapability {
      */
     private void loadDefaultFilterList() {
         blacklistItems.clear();
+        filterMatcher = null;
+        dirty = true;
 
         if (allowCustomFilters()) {
             return;
@@ -136,6 +145,7 @@ public class RsRingCapability implements IRsRingCapability {
     public void bindTerminal(World world, BlockPos pos) {
         this.terminalPos = pos;
         this.terminalDimension = world.provider.getDimension();
+        this.dirty = true;
     }
 
     @Override
@@ -161,6 +171,7 @@ public class RsRingCapability implements IRsRingCapability {
     @Override
     public void setEnabled(boolean enabled) {
         this.enabled = enabled;
+        this.dirty = true;
     }
 
     @Override
@@ -182,6 +193,7 @@ public class RsRingCapability implements IRsRingCapability {
         copy.blacklistItems = new ArrayList<>(this.blacklistItems);
         copy.whitelistMode = this.whitelistMode;
         copy.energyStorage = createEnergyStorage(this.energyStorage.getEnergyStored());
+        copy.inbox.copyFrom(this.inbox);
         return copy;
     }
 
@@ -192,6 +204,8 @@ public class RsRingCapability implements IRsRingCapability {
             String itemName = item.getItem().getRegistryName().toString();
             if (!blacklistItems.contains(itemName)) {
                 blacklistItems.add(itemName);
+                filterMatcher = null;
+                dirty = true;
             }
         }
     }
@@ -201,7 +215,10 @@ public class RsRingCapability implements IRsRingCapability {
         if (!allowCustomFilters()) return;
         if (!item.isEmpty()) {
             String itemName = item.getItem().getRegistryName().toString();
-            blacklistItems.remove(itemName);
+            if (blacklistItems.remove(itemName)) {
+                filterMatcher = null;
+                dirty = true;
+            }
         }
     }
 
@@ -227,6 +244,26 @@ public class RsRingCapability implements IRsRingCapability {
     public void setWhitelistMode(boolean whitelistMode) {
         if (!allowCustomFilters()) return;
         this.whitelistMode = whitelistMode;
+        this.filterMatcher = null;
+        this.dirty = true;
+    }
+
+    @Override
+    public RingFilterMatcher getFilterMatcher() {
+        if (filterMatcher == null || filterMatcher.isStale()) {
+            filterMatcher = RingFilterMatcher.compile(this);
+        }
+        return filterMatcher;
+    }
+
+    @Override
+    public RingInbox getInbox() {
+        return inbox;
+    }
+
+    @Override
+    public RingSweepTimer getSweepTimer() {
+        return sweepTimer;
     }
 
     @Override
@@ -254,6 +291,8 @@ public class RsRingCapability implements IRsRingCapability {
         if (slot < 0 || slot > 8) return;
         while (blacklistItems.size() <= slot) blacklistItems.add("");
         blacklistItems.set(slot, itemRegistryName == null || itemRegistryName.isEmpty() ? "" : itemRegistryName);
+        filterMatcher = null;
+        dirty = true;
     }
 
     @Override
@@ -294,6 +333,10 @@ public class RsRingCapability implements IRsRingCapability {
             }
             tag.setTag("blacklistItems", blacklistList);
 
+            if (!cap.inbox.isEmpty()) {
+                tag.setTag("inbox", cap.inbox.writeNBT());
+            }
+
             return tag;
         }
 
@@ -327,6 +370,9 @@ tag.getTagList("blacklistItems", 8); // 8 = String tag
             } else {
                 cap.loadDefaultFilterList();
             }
+            cap.filterMatcher = null;
+            cap.dirty = true;
+            cap.inbox.readNBT(tag.getTagList("inbox", 10)); // 10 = Compound tag
         }
     }
 
@@ -375,7 +421,33 @@ tag.getTagList("blacklistItems", 8); // 8 = String tag
         if (nbt instanceof NBTTagCompound) {
             if (!stack.hasTagCompound()) stack.setTagCompound(new NBTTagCompound());
             stack.getTagCompound().setTag("RsRingData", (NBTTagCompound) nbt);
+            if (cap instanceof RsRingCapability) {
+                ((RsRingCapability) cap).markSynced();
+            }
+        }
+    }
+
+    /**
+     * 仅在状态变化时写回物品 NBT。
+     * 能量与收件箱的变化只在 includeSweepState 为 true（吸收扫描的 tick）时写入，每次扫描最多一次。
+     */
+    public static void syncCapabilityToStackIfDirty(ItemStack stack, IRsRingCapability cap, boolean includeSweepState) {
+        if (!(cap instanceof RsRingCapability)) {
+            syncCapabilityToStack(stack, cap);
+            return;
         }
+        RsRingCapability ring = (RsRingCapability) cap;
+        boolean missing = !stack.hasTagCompound() || !stack.getTagCompound().hasKey("RsRingData");
+        boolean sweepChanged = ring.energyStorage.getEnergyStored() != ring.syncedEnergy || ring.inbox.isChanged();
+        if (ring.dirty || missing || (includeSweepState && sweepChanged)) {
+            syncCapabilityToStack(stack, cap);
+        }
+    }
+
+    private void markSynced() {
+        dirty = false;
+        syncedEnergy = energyStorage.getEnergyStored();
+        inbox.markSaved();
     }
 }
 
@@ -55,17 +55,17 @@ public class GuiExperiencePumpController extends GuiScreen {
     private int guiTop;
 
     // Storage data - updated from comprehensive scanning
-    private int xpStored;
+    private long xpStored;
     private int capacityLevels;
     private int mode;
     private int retainLevel;
     private boolean useForMending;
-    private int maxXp;
+    private long maxXp;
 
     // Comprehensive storage information
     private int totalTanks;
-    private int totalCapacity;
-    private int totalStored;
+    private long totalCapacity;
+    private long totalStored;
     // animated color for tank count
     private int animatedTankCountColor = 0xE0E0E0;
 
@@ -203,7 +203,7 @@ public class GuiExperiencePumpController extends GuiScreen {
             ItemStack firstTank = tanks.get(0);
             net.minecraft.nbt.NBTTagCompound data = ItemExperiencePump.getDataFromNBT(firstTank);
             if (data != null) {
-                xpStored = data.getInteger("xp");
+                xpStored = ItemExperiencePump.getXpStoredFromNBT(firstTank);
                 capacityLevels = data.hasKey("capacityLevels") ? data.getInteger("capacityLevels") : 1;  // 默认1级
                 mode = data.hasKey("mode") ? data.getInteger("mode") : com.rsring.config.ExperienceTankConfig.tank.defaultPumpMode;
                 retainLevel = data.hasKey("retainLevel") ? data.getInteger("retainLevel") : com.rsring.config.ExperienceTankConfig.tank.defaultRetainLevel;
@@ -17,6 +17,7 @@ public class ExperienceTankConfig implements IHasConfig {
         public int pumpingInterval = 5;
         public int mendingInterval = 20;
         public int extractionInterval = 4;
+        public int overflowFlushInterval = 100;
         public int defaultPumpMode = 0;
         public int defaultRetainLevel = 1;
         public boolean defaultMendingMode = true;
@@ -113,6 +114,14 @@ public class ExperienceTankConfig implements IHasConfig {
             "config.rsring.tank.extractionInterval",
             "config.rsring.tank.extractionInterval");
 
+        tank.overflowFlushInterval = config.getInt("overflowFlushInterval",
+            RsRingMod.MODID + ".tank",
+            100,
+            1,
+            1200,
+            "config.rsring.tank.overflowFlushInterval",
+            "config.rsring.tank.overflowFlushInterval");
+
         tank.defaultPumpMode = config.getInt("defaultPumpMode",
             RsRingMod.MODID + ".tank",
             0,
@@ -202,6 +211,10 @@ public class ExperienceTankConfig implements IHasConfig {
             tank.extractionInterval = 4;
             changed = true;
         }
+        if (tank.overflowFlushInterval <= 0) {
+            tank.overflowFlushInterval = 100;
+            changed = true;
+        }
         if (tank.defaultPumpMode < 0 || tank.defaultPumpMode > 2) {
             tank.defaultPumpMode = 0;
             changed = true;
@@ -238,6 +251,7 @@ public class ExperienceTankConfig implements IHasConfig {
         tank.pumpingInterval = 5;
         tank.mendingInterval = 20;
         tank.extractionInterval = 4;
+        tank.overflowFlushInterval = 100;
         tank.defaultPumpMode = 0;
         tank.defaultRetainLevel = 1;
         tank.defaultMendingMode = true;
@@ -23,13 +23,33 @@ public class RsRingConfig implements IHasConfig {
         public int maxEnergyCapacity = 10000000;
         public boolean allowCustomFilters = true;
         public int absorptionInterval = 5;
+        // 连续扫描无掉落物时间隔逐步增长的上限
+        public int maxAbsorptionInterval = 40;
         public int initialEnergy = 0;
         public double energyCostMultiplier = 1.0;
         public int manualChargeAmount = 1000;
+        // 事件驱动吸收：新掉落物入队，戒指只处理范围内区块的队列，不再轮询扫描
+        public boolean eventDrivenCapture = false;
+        // 目标区块未加载时是否通过区块加载票据强制加载，默认不加载
+        public boolean forceLoadTargetChunk = false;
+        // 目标不可用时戒指可暂存的物品数量，0 表示不暂存
+        public int inboxCapacity = 256;
+        // 目标拒收某类物品后，在多少 tick 内跳过该类物品的插入尝试，0 表示不缓存
+        public int rejectCacheTicks = 100;
     }
 
     public static AbsorbRingConfig absorbRing = new AbsorbRingConfig();
 
+    /**
+     * 性能相关配置
+     */
+    public static class PerformanceConfig {
+        // 每个服务器 tick 中 rsring 工作的时间预算（毫秒），超出后延后经验修补与物品栏快照，0 表示不限制
+        public double tickBudgetMs = 2.0;
+    }
+
+    public static PerformanceConfig performance = new PerformanceConfig();
+
     /**
      * 同步配置方法，用于从配置文件中读取并设置吸收戒指的各项参数
      * @param config 配置对象，用于获取和设置配置值
@@ -98,6 +118,14 @@ public class RsRingConfig implements IHasConfig {
             "config.rsring.ring.absorptionInterval",
             "config.rsring.ring.absorptionInterval");
 
+        absorbRing.maxAbsorptionInterval = config.getInt("maxAbsorptionInterval",
+            RsRingMod.MODID + ".ring",
+            40,
+            1,
+            200,
+            "config.rsring.ring.maxAbsorptionInterval",
+            "config.rsring.ring.maxAbsorptionInterval");
+
         absorbRing.initialEnergy = config.getInt("initialEnergy",
             RsRingMod.MODID + ".ring",
             0,
@@ -117,6 +145,41 @@ public class RsRingConfig implements IHasConfig {
             1000000,
             "config.rsring.ring.manualChargeAmount",
             "config.rsring.ring.manualChargeAmount");
+
+        absorbRing.eventDrivenCapture = config.getBoolean("eventDrivenCapture",
+            RsRingMod.MODID + ".ring",
+            false,
+            "config.rsring.ring.eventDrivenCapture",
+            "config.rsring.ring.eventDrivenCapture");
+
+        absorbRing.forceLoadTargetChunk = config.getBoolean("forceLoadTargetChunk",
+            RsRingMod.MODID + ".ring",
+            false,
+            "config.rsring.ring.forceLoadTargetChunk",
+            "config.rsring.ring.forceLoadTargetChunk");
+
+        absorbRing.inboxCapacity = config.getInt("inboxCapacity",
+            RsRingMod.MODID + ".ring",
+            256,
+            0,
+            4096,
+            "config.rsring.ring.inboxCapacity",
+            "config.rsring.ring.inboxCapacity");
+
+        absorbRing.rejectCacheTicks = config.getInt("rejectCacheTicks",
+            RsRingMod.MODID + ".ring",
+            100,
+            0,
+            1200,
+            "config.rsring.ring.rejectCacheTicks",
+            "config.rsring.ring.rejectCacheTicks");
+
+        config.addCustomCategoryComment(RsRingMod.MODID + ".performance", "config.rsring.performance");
+        config.setCategoryLanguageKey(RsRingMod.MODID + ".performance", "config.rsring.performance");
+
+        net.minecraftforge.common.config.Property tickBudgetProp = config.get(RsRingMod.MODID + ".performance", "tickBudgetMs", 2.0D, "config.rsring.performance.tickBudgetMs");
+        tickBudgetProp.setLanguageKey("config.rsring.performance.tickBudgetMs");
+        performance.tickBudgetMs = tickBudgetProp.getDouble();
     }
 
     public static boolean validateConfig() {
@@ -154,6 +217,14 @@ public class RsRingConfig implements IHasConfig {
             changed = true;
         }
 
+        if (absorbRing.maxAbsorptionInterval < absorbRing.absorptionInterval) {
+            absorbRing.maxAbsorptionInterval = absorbRing.absorptionInterval;
+            changed = true;
+        } else if (absorbRing.maxAbsorptionInterval > 200) {
+            absorbRing.maxAbsorptionInterval = 200;
+            changed = true;
+        }
+
         if (absorbRing.initialEnergy < 0) {
             absorbRing.initialEnergy = 0;
             changed = true;
@@ -175,6 +246,30 @@ public class RsRingConfig implements IHasConfig {
             changed = true;
         }
 
+        if (absorbRing.inboxCapacity < 0) {
+            absorbRing.inboxCapacity = 0;
+            changed = true;
+        } else if (absorbRing.inboxCapacity > 4096) {
+            absorbRing.inboxCapacity = 4096;
+            changed = true;
+        }
+
+        if (absorbRing.rejectCacheTicks < 0) {
+            absorbRing.rejectCacheTicks = 0;
+            changed = true;
+        } else if (absorbRing.rejectCacheTicks > 1200) {
+            absorbRing.rejectCacheTicks = 1200;
+            changed = true;
+        }
+
+        if (performance.tickBudgetMs < 0) {
+            performance.tickBudgetMs = 0.0;
+            changed = true;
+        } else if (performance.tickBudgetMs > 50.0) {
+            performance.tickBudgetMs = 50.0;
+            changed = true;
+        }
+
         return changed;
     }
 }
@@ -10,6 +10,9 @@ import com.rsring.item.ItemExperiencePumpController;
 import com.rsring.network.PacketToggleRsRing;
 import com.rsring.rsring.RsRingMod;
 import com.rsring.config.ConfigRegistry;
+import com.rsring.experience.PlayerTankIndex;
+import com.rsring.experience.PlayerXpLedger;
+import com.rsring.service.TickBudgetScheduler;
 import com.rsring.util.BaublesHelper;
 import com.rsring.util.XpHelper;
 import net.minecraft.block.state.IBlockState;
@@ -18,6 +21,7 @@ import net.minecraft.client.settings.KeyBinding;
 import net.minecraft.entity.player.EntityPlayer;
 import net.minecraft.item.Item;
 import net.minecraft.item.ItemStack;
+import net.minecraft.nbt.NBTTagCompound;
 import net.minecraft.tileentity.TileEntity;
 import net.minecraft.util.EnumHand;
 import net.minecraft.util.math.BlockPos;
@@ -32,19 +36,16 @@ import net.minecraftforge.fml.common.gameevent.InputEvent;
 import net.minecraftforge.fml.common.gameevent.TickEvent;
 import net.minecraftforge.fml.client.event.ConfigChangedEvent;
 import net.minecraftforge.event.entity.player.PlayerInteractEvent;
+import net.minecraftforge.event.entity.player.PlayerXpEvent;
 import net.minecraftforge.fml.relauncher.Side;
 import net.minecraftforge.fml.relauncher.SideOnly;
 import org.lwjgl.input.Keyboard;
 
-import java.util.HashMap;
 import java.util.List;
-import java.util.Map;
-import java.util.UUID;
 
 public class CommonEventHandler {
 
     private static KeyBinding toggleKeyBinding;
-    private static final Map<UUID, Integer> lastPlayerXp = new HashMap<>();
 
     public CommonEventHandler() {
         if (FMLCommonHandler.instance().getSide() == Side.CLIENT) {
@@ -111,100 +112,6 @@ public class CommonEventHandler {
         return ItemStack.EMPTY;
     }
 
-    private ItemStack findExperiencePump(EntityPlayer player) {
-        // Prefer empty tanks for filling
-        for (EnumHand hand : EnumHand.values()) {
-            ItemStack heldStack = player.getHeldItem(hand);
-            if (!heldStack.isEmpty() && heldStack.getItem() instanceof ItemExperiencePump) {
-                IExperiencePumpCapability cap = heldStack.getCapability(ExperiencePumpCapability.EXPERIENCE_PUMP_CAPABILITY, null);
-                if (cap != null && cap.getXpStored() == 0) {
-                    return heldStack;
-                }
-            }
-        }
-
-        if (BaublesHelper.isBaublesLoaded()) {
-            Object handler = BaublesHelper.getBaublesHandler(player);
-            int size = BaublesHelper.getSlots(handler);
-            for (int i = 0; i < size; i++) {
-                ItemStack stack = BaublesHelper.getStackInSlot(handler, i);
-                if (!stack.isEmpty() && stack.getItem() instanceof ItemExperiencePump) {
-                    IExperiencePumpCapability cap = stack.getCapability(ExperiencePumpCapability.EXPERIENCE_PUMP_CAPABILITY, null);
-                    if (cap != null && cap.getXpStored() == 0) {
-                        return stack;
-                    }
-                }
-            }
-        }
-
-        for (int i = 0; i < player.inventory.getSizeInventory(); i++) {
-            ItemStack stack = player.inventory.getStackInSlot(i);
-            if (!stack.isEmpty() && stack.getItem() instanceof ItemExperiencePump) {
-                IExperiencePumpCapability cap = stack.getCapability(ExperiencePumpCapability.EXPERIENCE_PUMP_CAPABILITY, null);
-                if (cap != null && cap.getXpStored() == 0) {
-                    return stack;
-                }
-            }
-        }
-
-        // Fallback: return any tank
-        for (EnumHand hand : EnumHand.values()) {
-            ItemStack heldStack = player.getHeldItem(hand);
-            if (!heldStack.isEmpty() && heldStack.getItem() instanceof ItemExperiencePump) {
-                return heldStack;
-            }
-        }
-
-        if (BaublesHelper.isBaublesLoaded()) {
-            Object handler = BaublesHelper.getBaublesHandler(player);
-            int size = BaublesHelper.getSlots(handler);
-            for (int i = 0; i < size; i++) {
-                ItemStack stack = BaublesHelper.getStackInSlot(handler, i);
-                if (!stack.isEmpty() && stack.getItem() instanceof ItemExperiencePump) {
-                    return stack;
-                }
-            }
-        }
-
-        for (int i = 0; i < player.inventory.getSizeInventory(); i++) {
-            ItemStack stack = player.inventory.getStackInSlot(i);
-            if (!stack.isEmpty() && stack.getItem() instanceof ItemExperiencePump) {
-                return stack;
-            }
-        }
-
-        return ItemStack.EMPTY;
-    }
-
-    private ItemStack findExperiencePumpController(EntityPlayer player) {
-        for (EnumHand hand : EnumHand.values()) {
-            ItemStack heldStack = player.getHeldItem(hand);
-            if (!heldStack.isEmpty() && heldStack.getItem() instanceof ItemExperiencePumpController) {
-                return heldStack;
-            }
-        }
-
-        if (BaublesHelper.isBaublesLoaded()) {
-            Object handler = BaublesHelper.getBaublesHandler(player);
-            int size = BaublesHelper.getSlots(handler);
-            for (int i = 0; i < size; i++) {
-                ItemStack stack = BaublesHelper.getStackInSlot(handler, i);
-                if (!stack.isEmpty() && stack.getItem() instanceof ItemExperiencePumpController) {
-                    return stack;
-                }
-            }
-        }
-
-        for (int i = 0; i < player.inventory.getSizeInventory(); i++) {
-            ItemStack stack = player.inventory.getStackInSlot(i);
-            if (!stack.isEmpty() && stack.getItem() instanceof ItemExperiencePumpController) {
-                return stack;
-            }
-        }
-
-        return ItemStack.EMPTY;
-    }
-
     private void syncControllerToTank(ItemStack controllerStack, ItemStack tankStack) {
         if (controllerStack.isEmpty() || tankStack.isEmpty()) return;
 
@@ -228,103 +135,119 @@ public class CommonEventHandler {
         EntityPlayer player = event.player;
         if (player == null || player.world.isRemote) return;
 
-        ItemStack absorbRingStack = findRing(player, ItemAbsorbRing.class);
+        // 一次遍历分类本 tick 需要的所有物品
+        PlayerInventoryView view = PlayerInventoryView.classify(player);
+
+        TickBudgetScheduler scheduler = TickBudgetScheduler.getInstance();
+
+        ItemStack absorbRingStack = view.getAbsorbRing();
         if (!absorbRingStack.isEmpty()) {
-            ((ItemAbsorbRing) absorbRingStack.getItem()).onWornTick(absorbRingStack, player);
+            scheduler.run(TickBudgetScheduler.Subsystem.RING_SWEEP,
+                () -> ((ItemAbsorbRing) absorbRingStack.getItem()).onWornTick(absorbRingStack, player));
         }
 
         // Controller-driven behavior (sync all tanks and pump via central controller)
-        ItemStack controllerStack = findExperiencePumpController(player);
+        ItemStack controllerStack = view.getController();
         if (!controllerStack.isEmpty()) {
-            ItemExperiencePumpController controllerItem = (ItemExperiencePumpController) controllerStack.getItem();
-            int mode = controllerItem.getMode(controllerStack);
-            int retainLevel = controllerItem.getRetainLevel(controllerStack);
-            boolean useForMending = controllerItem.isUseForMending(controllerStack);
-
-            com.rsring.experience.ExperiencePumpController controller = com.rsring.experience.ExperiencePumpController.getInstance();
-            com.rsring.experience.TankScanResult scan = controller.scanAllInventories(player);
-            List<ItemStack> tanks = scan.getAllTanks();
-
-            int maxManaged = com.rsring.config.ExperienceTankConfig.controller.maxManagedTanks;
-            if (maxManaged > 0 && tanks.size() > maxManaged) {
-                tanks = tanks.subList(0, maxManaged);
-            }
-
-            for (ItemStack tank : tanks) {
-                IExperiencePumpCapability cap = tank.getCapability(ExperiencePumpCapability.EXPERIENCE_PUMP_CAPABILITY, null);
-                if (cap == null) continue;
-                cap.setMode(mode);
-                cap.setRetainLevel(retainLevel);
-                cap.setUseForMending(useForMending);
-                ItemExperiencePump.syncCapabilityToStack(tank, cap);
-            }
-
-            if (mode == IExperiencePumpCapability.MODE_PUMP_TO_PLAYER) {
-                int playerTotal = controller.getPlayerTotalExperience(player);
-                int targetXp = controller.convertLevelToXP(retainLevel);
-                if (playerTotal < targetXp) {
-                    int need = targetXp - playerTotal;
-                    int available = controller.calculateTotalStored(player);
-                    int toMove = Math.min(need, available);
-                    if (toMove > 0) {
-                        controller.performExperienceOperation(player, toMove, true);
-                    }
-                }
-            } else if (mode == IExperiencePumpCapability.MODE_PUMP_FROM_PLAYER) {
-                int canExtract = controller.calculateLevelBasedExtraction(player, retainLevel);
-                if (canExtract > 0) {
-                    int availableSpace = controller.calculateTotalRemainingCapacity(player);
-                    int toMove = Math.min(canExtract, availableSpace);
-                    if (toMove > 0) {
-                        controller.performExperienceOperation(player, toMove, false);
-                    }
-                }
-            }
+            scheduler.run(TickBudgetScheduler.Subsystem.CONTROLLER_PUMPING,
+                () -> tickController(player, controllerStack, view));
         }
 
-        ItemStack pumpStack = findExperiencePump(player);
+        ItemStack pumpStack = view.getPreferredPump();
         if (!pumpStack.isEmpty()) {
-            ((ItemExperiencePump) pumpStack.getItem()).onWornTick(pumpStack, player);
+            scheduler.run(TickBudgetScheduler.Subsystem.PUMP_EXTRACTION,
+                () -> ((ItemExperiencePump) pumpStack.getItem()).onWornTick(pumpStack, player));
         }
-
-        checkPlayerExperienceChange(player, pumpStack);
     }
 
-    private void checkPlayerExperienceChange(EntityPlayer player, ItemStack pumpStack) {
-        if (pumpStack.isEmpty()) {
-            lastPlayerXp.remove(player.getUniqueID());
-            return;
-        }
+    private void tickController(EntityPlayer player, ItemStack controllerStack, PlayerInventoryView view) {
+        ItemExperiencePumpController controllerItem = (ItemExperiencePumpController) controllerStack.getItem();
+        int mode = controllerItem.getMode(controllerStack);
+        int retainLevel = controllerItem.getRetainLevel(controllerStack);
+        boolean useForMending = controllerItem.isUseForMending(controllerStack);
+        NBTTagCompound settings = ItemExperiencePumpController.ensureSettingsStamp(controllerStack);
+        int settingsId = ItemExperiencePumpController.getSettingsId(settings);
+        int settingsVersion = ItemExperiencePumpController.getSettingsVersion(settings);
 
-        IExperiencePumpCapability cap = pumpStack.getCapability(ExperiencePumpCapability.EXPERIENCE_PUMP_CAPABILITY, null);
-        if (cap == null) return;
+        com.rsring.experience.ExperiencePumpController controller = com.rsring.experience.ExperiencePumpController.getInstance();
+        com.rsring.experience.TankScanResult scan = controller.scanAllInventories(player);
+        List<ItemStack> tanks = scan.getAllTanks();
 
-        if (cap.getMode() != IExperiencePumpCapability.MODE_PUMP_FROM_PLAYER) {
-            lastPlayerXp.remove(player.getUniqueID());
-            return;
+        int maxManaged = com.rsring.config.ExperienceTankConfig.controller.maxManagedTanks;
+        if (maxManaged > 0 && tanks.size() > maxManaged) {
+            tanks = tanks.subList(0, maxManaged);
         }
 
-        int currentXp = XpHelper.getPlayerTotalExperience(player);
-        Integer lastXp = lastPlayerXp.get(player.getUniqueID());
-        lastPlayerXp.put(player.getUniqueID(), currentXp);
-
-        if (lastXp == null || currentXp <= lastXp) {
-            return;
+        for (ItemStack tank : tanks) {
+            IExperiencePumpCapability cap = tank.getCapability(ExperiencePumpCapability.EXPERIENCE_PUMP_CAPABILITY, null);
+            // 只在储罐尚未应用当前版本的设置时写入
+            if (cap == null || cap.isSettingsApplied(settingsId, settingsVersion)) continue;
+            cap.setMode(mode);
+            cap.setRetainLevel(retainLevel);
+            cap.setUseForMending(useForMending);
+            cap.markSettingsApplied(settingsId, settingsVersion);
+            ItemExperiencePump.syncCapabilityToStack(tank, cap);
         }
 
-        int retainLevel = cap.getRetainLevel();
-        int targetXp = XpHelper.getExperienceForLevel(retainLevel);
+        if (mode == IExperiencePumpCapability.MODE_PUMP_TO_PLAYER) {
+            int playerTotal = controller.getPlayerTotalExperience(player);
+            int targetXp = controller.convertLevelToXP(retainLevel);
+            if (playerTotal < targetXp) {
+                int need = targetXp - playerTotal;
+                long available = controller.calculateTotalStored(player);
+                int toMove = (int) Math.min(need, available);
+                if (toMove > 0) {
+                    controller.performExperienceOperation(player, toMove, true);
+                }
+            }
+        } else if (mode == IExperiencePumpCapability.MODE_PUMP_FROM_PLAYER) {
+            int canExtract = controller.calculateLevelBasedExtraction(player, retainLevel);
+            if (canExtract > 0) {
+                long availableSpace = controller.calculateTotalRemainingCapacity(player);
+                int toMove = (int) Math.min(canExtract, availableSpace);
+                if (toMove > 0) {
+                    controller.performExperienceOperation(player, toMove, false);
+                }
+            }
+        }
+        // 控制器搬运了经验，储罐的空罐标记需要重新读取
+        view.refreshPumpFlags();
+    }
 
-        if (currentXp > targetXp) {
-            int excess = currentXp - targetXp;
-            int canStore = cap.getMaxXp() - cap.getXpStored();
-            int toExtract = Math.min(excess, canStore);
+    /**
+     * 玩家获得经验时（经验球、熔炉、指令等都经过 addExperience）直接截留超出保留等级的部分，
+     * 按扫描顺序存入第一个有空间的泵入模式储罐，不再每 tick 轮询玩家总经验做差。
+     */
+    @SubscribeEvent(priority = EventPriority.LOW)
+    public void onPlayerXpChange(PlayerXpEvent.XpChange event) {
+        int amount = event.getAmount();
+        if (amount <= 0) return;
+        EntityPlayer player = event.getEntityPlayer();
+        if (player == null || player.world.isRemote || !com.rsring.config.ExperienceTankConfig.tank.enabled) return;
+
+        PlayerTankIndex tankIndex = PlayerTankIndex.getInstance();
+        List<ItemStack> tanks = tankIndex.getScan(player).getAllTanks();
+        if (tanks.isEmpty()) return;
+
+        int currentXp = PlayerXpLedger.getInstance().getTotal(player);
+        int remaining = amount;
+        for (ItemStack tank : tanks) {
+            if (remaining <= 0) break;
+            IExperiencePumpCapability cap = tank.getCapability(ExperiencePumpCapability.EXPERIENCE_PUMP_CAPABILITY, null);
+            if (cap == null || cap.getMode() != IExperiencePumpCapability.MODE_PUMP_FROM_PLAYER) continue;
+
+            int targetXp = XpHelper.getExperienceForLevel(cap.getRetainLevel());
+            long excess = Math.min(remaining, (long) currentXp + remaining - targetXp);
+            int toStore = (int) Math.min(excess, cap.getFreeSpace());
+            if (toStore <= 0) continue;
+
+            remaining -= cap.addXp(toStore);
+            ItemExperiencePump.syncCapabilityToStack(tank, cap);
+        }
 
-            if (toExtract > 0) {
-                XpHelper.removeExperienceFromPlayer(player, toExtract);
-                cap.addXp(toExtract);
-                ItemExperiencePump.syncCapabilityToStack(pumpStack, cap);
-            }
+        if (remaining != amount) {
+            event.setAmount(remaining);
+            tankIndex.markContentsChanged(player);
         }
     }
 
@@ -412,6 +335,7 @@ public class CommonEventHandler {
         if (event == null) return;
         if (!RsRingMod.MODID.equals(event.getModID())) return;
         ConfigRegistry.syncAllConfig();
+        com.rsring.capability.RingFilterMatcher.invalidateAll();
     }
 
     private boolean isChestOrContainer(World world, BlockPos pos) {
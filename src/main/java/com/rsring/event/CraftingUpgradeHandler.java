@@ -62,7 +62,7 @@ public class CraftingUpgradeHandler {
 
             // 从原储罐读取：等级与经验必须从NBT读（capability反序列化顺序曾导致>1000经验被截断）
             int originalLevels = Math.max(1, ItemExperiencePump.getCapacityLevelsFromNBT(pumpStack));
-            int originalXP = ItemExperiencePump.getXpStoredFromNBT(pumpStack);
+            long originalXP = ItemExperiencePump.getXpStoredFromNBT(pumpStack);
             IExperiencePumpCapability originalCap = pumpStack.getCapability(ExperiencePumpCapability.EXPERIENCE_PUMP_CAPABILITY, null);
             int originalMode = originalCap != null ? originalCap.getMode() : 0;
             int originalRetainLevel = originalCap != null ? originalCap.getRetainLevel() : 10;
@@ -117,8 +117,8 @@ public class CraftingUpgradeHandler {
             
             // 验证最终结果
             int finalLevels = ItemExperiencePump.getCapacityLevelsFromNBT(result);
-            int finalXP = ItemExperiencePump.getXpStoredFromNBT(result);
-            int finalMaxXP = ItemExperiencePump.getMaxXpFromNBT(result);
+            long finalXP = ItemExperiencePump.getXpStoredFromNBT(result);
+            long finalMaxXP = ItemExperiencePump.getMaxXpFromNBT(result);
             LOGGER.info("Final verification - Levels: {}, XP: {}, MaxXP: {}", finalLevels, finalXP, finalMaxXP);
             
             if (finalXP != originalXP || finalLevels != newLevels) {
@@ -0,0 +1,136 @@
+package com.rsring.event;
+
+import com.rsring.capability.ExperiencePumpCapability;
+import com.rsring.capability.IExperiencePumpCapability;
+import com.rsring.item.ItemAbsorbRing;
+import com.rsring.item.ItemExperiencePump;
+import com.rsring.item.ItemExperiencePumpController;
+import com.rsring.util.BaublesHelper;
+import net.minecraft.entity.player.EntityPlayer;
+import net.minecraft.item.Item;
+import net.minecraft.item.ItemStack;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * 玩家物品的单次分类视图。
+ * 按 主手 → 副手 → Baubles → 物品栏 的顺序只遍历一次，记录首个吸收戒指、首个经验泵控制器以及所有经验储罐
+ * （含位置、槽位与是否为空），供同一 tick 内的后续逻辑复用，避免重复读取槽位。
+ */
+public final class PlayerInventoryView {
+
+    public enum Location {
+        MAIN_HAND,
+        OFF_HAND,
+        BAUBLES,
+        INVENTORY
+    }
+
+    /** 分类出的物品及其所在位置 */
+    public static final class Entry {
+        private final ItemStack stack;
+        private final Location location;
+        private final int slot;
+        private boolean xpEmpty;
+
+        Entry(ItemStack stack, Location location, int slot) {
+            this.stack = stack;
+            this.location = location;
+            this.slot = slot;
+        }
+
+        public ItemStack getStack() {
+            return stack;
+        }
+
+        public Location getLocation() {
+            return location;
+        }
+
+        public int getSlot() {
+            return slot;
+        }
+
+        /** 储罐是否为空（仅对经验储罐有意义） */
+        public boolean isXpEmpty() {
+            return xpEmpty;
+        }
+    }
+
+    private Entry absorbRing;
+    private Entry controller;
+    private final List<Entry> pumps = new ArrayList<>();
+
+    private PlayerInventoryView() {}
+
+    public static PlayerInventoryView classify(EntityPlayer player) {
+        PlayerInventoryView view = new PlayerInventoryView();
+        view.accept(player.getHeldItemMainhand(), Location.MAIN_HAND, -1);
+        view.accept(player.getHeldItemOffhand(), Location.OFF_HAND, -1);
+
+        if (BaublesHelper.isBaublesLoaded()) {
+            Object handler = BaublesHelper.getBaublesHandler(player);
+            int size = BaublesHelper.getSlots(handler);
+            for (int i = 0; i < size; i++) {
+                view.accept(BaublesHelper.getStackInSlot(handler, i), Location.BAUBLES, i);
+            }
+        }
+
+        for (int i = 0; i < player.inventory.getSizeInventory(); i++) {
+            view.accept(player.inventory.getStackInSlot(i), Location.INVENTORY, i);
+        }
+        return view;
+    }
+
+    private void accept(ItemStack stack, Location location, int slot) {
+        if (stack.isEmpty()) return;
+        Item item = stack.getItem();
+        if (item instanceof ItemAbsorbRing) {
+            if (absorbRing == null) absorbRing = new Entry(stack, location, slot);
+        } else if (item instanceof ItemExperiencePumpController) {
+            if (controller == null) controller = new Entry(stack, location, slot);
+        } else if (item instanceof ItemExperiencePump) {
+            Entry entry = new Entry(stack, location, slot);
+            entry.xpEmpty = readXpEmpty(stack);
+            pumps.add(entry);
+        }
+    }
+
+    private static boolean readXpEmpty(ItemStack stack) {
+        IExperiencePumpCapability cap = stack.getCapability(ExperiencePumpCapability.EXPERIENCE_PUMP_CAPABILITY, null);
+        return cap != null && cap.getXpStored() == 0;
+    }
+
+    public ItemStack getAbsorbRing() {
+        return absorbRing != null ? absorbRing.stack : ItemStack.EMPTY;
+    }
+
+    public ItemStack getController() {
+        return controller != null ? controller.stack : ItemStack.EMPTY;
+    }
+
+    public List<Entry> getPumps() {
+        return Collections.unmodifiableList(pumps);
+    }
+
+    /**
+     * 储罐内容可能在分类之后被修改（如控制器搬运经验），重新读取空罐标记，不再访问槽位。
+     */
+    public void refreshPumpFlags() {
+        for (Entry entry : pumps) {
+            entry.xpEmpty = readXpEmpty(entry.stack);
+        }
+    }
+
+    /**
+     * 优先返回空储罐，其次返回任意储罐，与原先的查找顺序一致。
+     */
+    public ItemStack getPreferredPump() {
+        for (Entry entry : pumps) {
+            if (entry.xpEmpty) return entry.stack;
+        }
+        return pumps.isEmpty() ? ItemStack.EMPTY : pumps.get(0).stack;
+    }
+}
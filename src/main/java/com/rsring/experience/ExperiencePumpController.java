@@ -77,8 +77,10 @@ public class ExperiencePumpController {
         
         LOGGER.debug("Scanning all inventories for experience tanks: {}", player.getName());
         
-        // Delegate to inventory integration layer for comprehensive scanning
-        TankScanResult result = inventoryLayer.scanAllInventories(player);
+        // 服务端使用事件维护的储罐索引，客户端（GUI）仍直接扫描物品栏
+        TankScanResult result = player.world.isRemote
+            ? inventoryLayer.scanAllInventories(player)
+            : PlayerTankIndex.getInstance().getScan(player);
         
         LOGGER.debug("Tank scan complete for player {}: {} tanks found with total capacity {}",
                     player.getName(), result.getTankCount(), result.getTotalCapacity());
@@ -93,13 +95,13 @@ public class ExperiencePumpController {
      *@param player 计算总容量的播放器
      *@return 所有坦克的总容量（XP点）
      */
-    public int calculateTotalCapacity(EntityPlayer player) {
+    public long calculateTotalCapacity(EntityPlayer player) {
         if (player == null) {
             return 0;
         }
         
         TankScanResult scanResult = scanAllInventories(player);
-        int totalCapacity = scanResult.getTotalCapacity();
+        long totalCapacity = scanResult.getTotalCapacity();
         
         LOGGER.debug("Total capacity calculated for player {}: {} XP", player.getName(), totalCapacity);
         
@@ -112,13 +114,13 @@ public class ExperiencePumpController {
      *@param player 计算总存储 XP 的玩家
      *@return 所有坦克存储的 XP 总量
      */
-    public int calculateTotalStored(EntityPlayer player) {
+    public long calculateTotalStored(EntityPlayer player) {
         if (player == null) {
             return 0;
         }
         
         TankScanResult scanResult = scanAllInventories(player);
-        int totalStored = scanResult.getTotalStored();
+        long totalStored = scanResult.getTotalStored();
         
         LOGGER.debug("Total stored XP calculated for player {}: {} XP", player.getName(), totalStored);
         
@@ -131,15 +133,13 @@ public class ExperiencePumpController {
      *@param player 计算剩余容量的播放器
      *@return 总剩余容量（XP点）
      */
-    public int calculateTotalRemainingCapacity(EntityPlayer player) {
+    public long calculateTotalRemainingCapacity(EntityPlayer player) {
         if (player == null) {
             return 0;
         }
         
-        int totalCapacity = calculateTotalCapacity(player);
-        int totalStored = calculateTotalStored(player);
-        
-        return Math.max(0, totalCapacity - totalStored);
+        TankScanResult scanResult = scanAllInventories(player);
+        return Math.max(0, scanResult.getTotalRemainingCapacity());
     }
     
     /**
@@ -207,47 +207,12 @@ public class ExperiencePumpController {
      * @return The actual amount extracted
      */
     private int extractExperienceFromTanks(EntityPlayer player, int amount) {
-        TankScanResult scanResult = scanAllInventories(player);
-        List<ItemStack> tanks = scanResult.getAllTanks();
-
-        // Sort tanks by stored XP in descending order to consolidate extraction from fullest tanks first
-        tanks.sort((tank1, tank2) -> {
-            int stored1 = ItemExperiencePump.getXpStoredFromNBT(tank1);
-            int stored2 = ItemExperiencePump.getXpStoredFromNBT(tank2);
-            return Integer.compare(stored2, stored1); // Descending order
-        });
-
-        int totalExtracted = 0;
-        int remainingToExtract = amount;
-
-        // Extract from tanks in priority order until we have enough or run out of stored XP
-        for (ItemStack tank : tanks) {
-            if (remainingToExtract <= 0) {
-                break;
-            }
-
-            int storedInTank = ItemExperiencePump.getXpStoredFromNBT(tank);
-            if (storedInTank <= 0) {
-                continue;
-            }
+        // 按已存经验降序从储罐取出，只弹出实际用到的储罐
+        int totalExtracted = getFillOrder(player).extract(amount);
 
-            int extractFromThisTank = Math.min(remainingToExtract, storedInTank);
-
-            // Remove XP from tank using capability
-            com.rsring.capability.IExperiencePumpCapability tankCap = tank.getCapability(
-                com.rsring.capability.ExperiencePumpCapability.EXPERIENCE_PUMP_CAPABILITY, null);
-            if (tankCap != null) {
-                tankCap.takeXp(extractFromThisTank);
-                ItemExperiencePump.syncCapabilityToStack(tank, tankCap);
-            }
-
-            // Add XP to player
-            addExperienceToPlayer(player, extractFromThisTank);
-
-            totalExtracted += extractFromThisTank;
-            remainingToExtract -= extractFromThisTank;
-
-            LOGGER.debug("Extracted {} XP from tank, total extracted: {}", extractFromThisTank, totalExtracted);
+        if (totalExtracted > 0) {
+            addExperienceToPlayer(player, totalExtracted);
+            PlayerTankIndex.getInstance().markContentsChanged(player);
         }
 
         LOGGER.debug("Extraction complete for player {}: {} XP extracted", player.getName(), totalExtracted);
@@ -273,63 +238,27 @@ public class ExperiencePumpController {
             return 0;
         }
 
-        TankScanResult scanResult = scanAllInventories(player);
-        List<ItemStack> tanks = scanResult.getAllTanks();
-
-        // 按照填充百分比排序，优先填满前面未填满的储罐
-        tanks.sort((tank1, tank2) -> {
-            int stored1 = ItemExperiencePump.getXpStoredFromNBT(tank1);
-            int capacity1 = ItemExperiencePump.getMaxXpFromNBT(tank1);
-            int stored2 = ItemExperiencePump.getXpStoredFromNBT(tank2);
-            int capacity2 = ItemExperiencePump.getMaxXpFromNBT(tank2);
-            
-            double fill1 = capacity1 > 0 ? (double) stored1 / capacity1 : 1.0;
-            double fill2 = capacity2 > 0 ? (double) stored2 / capacity2 : 1.0;
-            
-            return Double.compare(fill1, fill2); // 升序排序，填充少的优先
-        });
-
-        int totalInjected = 0;
-        int remainingToInject = amount;
-
-        // Inject into tanks in priority order until we fill them or run out of XP
-        for (ItemStack tank : tanks) {
-            if (remainingToInject <= 0) {
-                break;
-            }
-
-            int storedInTank = ItemExperiencePump.getXpStoredFromNBT(tank);
-            int tankCapacity = ItemExperiencePump.getMaxXpFromNBT(tank);
-            int availableSpace = tankCapacity - storedInTank;
-
-            if (availableSpace <= 0) {
-                continue;
-            }
-
-            int injectIntoThisTank = Math.min(remainingToInject, availableSpace);
-
-            // Add XP to tank using capability
-            com.rsring.capability.IExperiencePumpCapability tankCap = tank.getCapability(
-                com.rsring.capability.ExperiencePumpCapability.EXPERIENCE_PUMP_CAPABILITY, null);
-            if (tankCap != null) {
-                tankCap.addXp(injectIntoThisTank);
-                ItemExperiencePump.syncCapabilityToStack(tank, tankCap);
-            }
-
-            totalInjected += injectIntoThisTank;
-            remainingToInject -= injectIntoThisTank;
-
-            LOGGER.debug("Injected {} XP into tank, total injected: {}", injectIntoThisTank, totalInjected);
-        }
+        // 按照填充百分比从低到高注入，优先填满前面未填满的储罐
+        int totalInjected = getFillOrder(player).inject(amount);
 
         // Remove XP from player
         if (totalInjected > 0) {
             removeExperienceFromPlayer(player, totalInjected);
+            PlayerTankIndex.getInstance().markContentsChanged(player);
         }
 
         LOGGER.debug("Injection complete for player {}: {} XP injected", player.getName(), totalInjected);
         return totalInjected;
     }
+
+    /**
+     * 服务端使用储罐索引中增量维护的分配顺序，客户端临时构建。
+     */
+    private TankFillOrder getFillOrder(EntityPlayer player) {
+        return player.world.isRemote
+            ? new TankFillOrder(scanAllInventories(player).getAllTanks())
+            : PlayerTankIndex.getInstance().getFillOrder(player);
+    }
     
     /**
      * Converts XP points to equivalent level using Minecraft's official formulas.
@@ -383,7 +312,7 @@ public class ExperiencePumpController {
     
     /**
      * 获取玩家的总经验值。
-     * 现在委托给 XpHelper 工具类，使用精确的计算方法
+     * 通过玩家经验账本读取，包含本 tick 尚未提交的增减
      * 
      * @param player The player
      * @return The player's total XP
@@ -393,7 +322,7 @@ public class ExperiencePumpController {
             return 0;
         }
         
-        return com.rsring.util.XpHelper.getPlayerTotalExperience(player);
+        return PlayerXpLedger.getInstance().getTotal(player);
     }
     
     /**
@@ -409,7 +338,7 @@ public class ExperiencePumpController {
     
     /**
      * Adds experience to a player using Minecraft's experience system.
-     * 现在委托给 XpHelper 工具类
+     * 记入玩家经验账本，在 tick 结束时统一提交
      * 
      * @param player The player to add experience to
      * @param amount The amount of XP to add
@@ -419,13 +348,13 @@ public class ExperiencePumpController {
             return;
         }
         
-        com.rsring.util.XpHelper.addExperienceToPlayer(player, amount);
+        PlayerXpLedger.getInstance().add(player, amount);
         LOGGER.debug("Added {} XP to player {}", amount, player.getName());
     }
     
     /**
      * Removes experience from a player.
-     * 现在委托给 XpHelper 工具类
+     * 通过玩家经验账本立即扣除
      * 
      * @param player The player to remove experience from
      * @param amount The amount of XP to remove
@@ -435,7 +364,7 @@ public class ExperiencePumpController {
             return;
         }
         
-        int actualRemoved = com.rsring.util.XpHelper.removeExperienceFromPlayer(player, amount);
+        int actualRemoved = PlayerXpLedger.getInstance().remove(player, amount);
         LOGGER.debug("Removed {} XP from player {}", actualRemoved, player.getName());
     }
     
@@ -574,7 +503,7 @@ public class ExperiencePumpController {
         
         diagnostics.put("playerName", player.getName());
         diagnostics.put("playerXP", getPlayerTotalExperience(player));
-        diagnostics.put("playerLevel", player.experienceLevel);
+        diagnostics.put("playerLevel", PlayerXpLedger.getInstance().getLevel(player));
         
         TankScanResult scanResult = scanAllInventories(player);
         diagnostics.put("totalTanks", scanResult.getTankCount());
@@ -12,8 +12,8 @@ import java.util.UUID;
  */
 public class ExperienceTankData {
     
-    private int storedExperience;     // 当前存储的经验值
-    private int maxCapacity;          // 最大经验容量  
+    private long storedExperience;    // 当前存储的经验值
+    private long maxCapacity;         // 最大经验容量  
     private int tankTier;             // 储罐升级等级
     private UUID tankId;              // 唯一标识符
     
@@ -36,7 +36,7 @@ public class ExperienceTankData {
     /**
      * 创建具有指定值的新经验储罐数据。
      */
-    public ExperienceTankData(int storedExperience, int maxCapacity, int tankTier) {
+    public ExperienceTankData(long storedExperience, long maxCapacity, int tankTier) {
         this.storedExperience = Math.max(0, Math.min(storedExperience, maxCapacity));
         this.maxCapacity = Math.max(1, maxCapacity);
         this.tankTier = Math.max(1, tankTier);
@@ -55,19 +55,19 @@ public class ExperienceTankData {
     
     // Getters and setters
     
-    public int getStoredExperience() {
+    public long getStoredExperience() {
         return storedExperience;
     }
     
-    public void setStoredExperience(int storedExperience) {
+    public void setStoredExperience(long storedExperience) {
         this.storedExperience = Math.max(0, Math.min(storedExperience, maxCapacity));
     }
     
-    public int getMaxCapacity() {
+    public long getMaxCapacity() {
         return maxCapacity;
     }
     
-    public void setMaxCapacity(int maxCapacity) {
+    public void setMaxCapacity(long maxCapacity) {
         this.maxCapacity = Math.max(1, maxCapacity);
         // Ensure stored XP doesn't exceed new capacity
         this.storedExperience = Math.min(this.storedExperience, this.maxCapacity);
@@ -108,7 +108,7 @@ public class ExperienceTankData {
     /**
      * 获取剩余容量。
      */
-    public int getRemainingCapacity() {
+    public long getRemainingCapacity() {
         return maxCapacity - storedExperience;
     }
     
@@ -125,7 +125,7 @@ public class ExperienceTankData {
     public int addExperience(int amount) {
         if (amount <= 0) return 0;
         
-        int canAdd = Math.min(amount, getRemainingCapacity());
+        int canAdd = (int) Math.min(amount, getRemainingCapacity());
         storedExperience += canAdd;
         return canAdd;
     }
@@ -136,7 +136,7 @@ public class ExperienceTankData {
     public int removeExperience(int amount) {
         if (amount <= 0) return 0;
         
-        int canRemove = Math.min(amount, storedExperience);
+        int canRemove = (int) Math.min(amount, storedExperience);
         storedExperience -= canRemove;
         return canRemove;
     }
@@ -150,8 +150,8 @@ public class ExperienceTankData {
     public NBTTagCompound writeToNBT() {
         NBTTagCompound nbt = new NBTTagCompound();
         
-        nbt.setInteger(NBT_STORED_XP, storedExperience);
-        nbt.setInteger(NBT_MAX_CAPACITY, maxCapacity);
+        com.rsring.capability.ExperiencePumpCapability.writeXp(nbt, NBT_STORED_XP, storedExperience);
+        com.rsring.capability.ExperiencePumpCapability.writeXp(nbt, NBT_MAX_CAPACITY, maxCapacity);
         nbt.setInteger(NBT_TANK_TIER, tankTier);
         
         if (tankId != null) {
@@ -170,12 +170,12 @@ public class ExperienceTankData {
         
         // 读取存储的经验值并验证
         if (nbt.hasKey(NBT_STORED_XP)) {
-            this.storedExperience = Math.max(0, nbt.getInteger(NBT_STORED_XP));
+            this.storedExperience = com.rsring.capability.ExperiencePumpCapability.readXp(nbt, NBT_STORED_XP);
         }
         
         // 读取最大容量并验证
         if (nbt.hasKey(NBT_MAX_CAPACITY)) {
-            this.maxCapacity = Math.max(1, nbt.getInteger(NBT_MAX_CAPACITY));
+            this.maxCapacity = Math.max(1, nbt.getLong(NBT_MAX_CAPACITY));
         }
         
         // 读取储罐等级并验证
@@ -222,8 +222,8 @@ public class ExperienceTankData {
     
     @Override
     public int hashCode() {
-        int result = storedExperience;
-        result = 31 * result + maxCapacity;
+        int result = Long.hashCode(storedExperience);
+        result = 31 * result + Long.hashCode(maxCapacity);
         result = 31 * result + tankTier;
         result = 31 * result + (tankId != null ? tankId.hashCode() : 0);
         return result;
@@ -80,17 +80,17 @@ public class ExperienceTankManager {
         }
         
         // Get stored experience from old tank
-        int storedExperience = getStoredExperience(oldTank);
+        long storedExperience = getStoredExperience(oldTank);
         if (storedExperience <= 0) {
             LOGGER.debug("No experience to preserve in old tank");
             return newTank;
         }
         
         // Get the new tank's capacity
-        int newCapacity = getTankCapacity(newTank);
+        long newCapacity = getTankCapacity(newTank);
         
         // Validate and cap the stored experience if necessary (Requirement 1.4)
-        int preservedExperience = validateCapacity(storedExperience, newCapacity);
+        long preservedExperience = validateCapacity(storedExperience, newCapacity);
         
         if (preservedExperience < storedExperience) {
             LOGGER.info("Experience capped during upgrade: {} -> {} (capacity: {})", 
@@ -115,7 +115,7 @@ public class ExperienceTankManager {
      * @param maxCapacity 储罐的最大容量
      * @return 验证后的经验值数量（限制在容量范围内）
      */
-    public int validateCapacity(int storedXP, int maxCapacity) {
+    public long validateCapacity(long storedXP, long maxCapacity) {
         if (storedXP < 0) {
             LOGGER.warn("Invalid stored XP amount: {}, resetting to 0", storedXP);
             return 0;
@@ -140,7 +140,7 @@ public class ExperienceTankManager {
      * @param tank 储罐物品栈
      * @return 存储的经验值数量
      */
-    public int getStoredExperience(ItemStack tank) {
+    public long getStoredExperience(ItemStack tank) {
         if (tank.isEmpty() || !(tank.getItem() instanceof ItemExperiencePump)) {
             return 0;
         }
@@ -155,7 +155,7 @@ public class ExperienceTankManager {
         // Fallback to NBT data
         if (tank.hasTagCompound() && tank.getTagCompound().hasKey(ItemExperiencePump.XP_TAG)) {
             NBTTagCompound data = tank.getTagCompound().getCompoundTag(ItemExperiencePump.XP_TAG);
-            return data.getInteger("xp");
+            return ExperiencePumpCapability.readXp(data, "xp");
         }
         
         return 0;
@@ -167,15 +167,15 @@ public class ExperienceTankManager {
      * @param tank 储罐物品栈
      * @param experience 要存储的经验值数量
      */
-    public void setStoredExperience(ItemStack tank, int experience) {
+    public void setStoredExperience(ItemStack tank, long experience) {
         if (tank.isEmpty() || !(tank.getItem() instanceof ItemExperiencePump)) {
             LOGGER.warn("Cannot set experience: invalid tank");
             return;
         }
         
         // Validate the experience amount
-        int capacity = getTankCapacity(tank);
-        int validatedExperience = validateCapacity(experience, capacity);
+        long capacity = getTankCapacity(tank);
+        long validatedExperience = validateCapacity(experience, capacity);
         
         // Set via capability if available
         IExperiencePumpCapability capability = tank.getCapability(
@@ -197,7 +197,7 @@ public class ExperienceTankManager {
             tank.getTagCompound().setTag(ItemExperiencePump.XP_TAG, data);
         }
         
-        data.setInteger("xp", validatedExperience);
+        ExperiencePumpCapability.writeXp(data, "xp", validatedExperience);
     }
     
     /**
@@ -206,7 +206,7 @@ public class ExperienceTankManager {
      * @param tank 储罐物品栈
      * @return 储罐的容量
      */
-    public int getTankCapacity(ItemStack tank) {
+    public long getTankCapacity(ItemStack tank) {
         if (tank.isEmpty() || !(tank.getItem() instanceof ItemExperiencePump)) {
             return BASE_CAPACITY;
         }
@@ -239,7 +239,7 @@ public class ExperienceTankManager {
             ExperiencePumpCapability.EXPERIENCE_PUMP_CAPABILITY, null);
         if (capability != null) {
             // Calculate tier from capacity
-            int capacity = capability.getMaxXp();
+            long capacity = capability.getMaxXp();
             return calculateTierFromCapacity(capacity);
         }
         
@@ -271,13 +271,13 @@ public class ExperienceTankManager {
      * @param capacity 储罐容量
      * @return 该容量对应的等级
      */
-    public int calculateTierFromCapacity(int capacity) {
+    public int calculateTierFromCapacity(long capacity) {
         if (capacity <= BASE_CAPACITY) {
             return 1;
         }
         
-        int tier = 1 + (capacity - BASE_CAPACITY) / CAPACITY_PER_TIER;
-        return Math.max(1, Math.min(tier, MAX_TIER));
+        long tier = 1 + (capacity - BASE_CAPACITY) / CAPACITY_PER_TIER;
+        return (int) Math.max(1, Math.min(tier, MAX_TIER));
     }
     
     /**
@@ -354,9 +354,9 @@ public class ExperienceTankManager {
             return amount;
         }
         
-        int currentStored = getStoredExperience(tank);
-        int capacity = getTankCapacity(tank);
-        int availableSpace = capacity - currentStored;
+        long currentStored = getStoredExperience(tank);
+        long capacity = getTankCapacity(tank);
+        long availableSpace = capacity - currentStored;
         
         if (availableSpace <= 0) {
             return amount; // Tank is full, all is overflow
@@ -369,7 +369,7 @@ public class ExperienceTankManager {
         } else {
             // Partial addition, return overflow
             setStoredExperience(tank, capacity);
-            return amount - availableSpace;
+            return (int) (amount - availableSpace);
         }
     }
     
@@ -443,10 +443,10 @@ public class ExperienceTankManager {
      * @param player 要计算的玩家
      * @return 所有储罐的总容量
      */
-    public int calculateTotalCapacity(EntityPlayer player) {
+    public long calculateTotalCapacity(EntityPlayer player) {
         List<ItemStack> tanks = findAllTanks(player);
         return tanks.stream()
-                   .mapToInt(this::getTankCapacity)
+                   .mapToLong(this::getTankCapacity)
                    .sum();
     }
     
@@ -456,10 +456,10 @@ public class ExperienceTankManager {
      * @param player 要计算的玩家
      * @return 存储的总经验值
      */
-    public int calculateTotalStored(EntityPlayer player) {
+    public long calculateTotalStored(EntityPlayer player) {
         List<ItemStack> tanks = findAllTanks(player);
         return tanks.stream()
-                   .mapToInt(this::getStoredExperience)
+                   .mapToLong(this::getStoredExperience)
                    .sum();
     }
     
@@ -475,8 +475,8 @@ public class ExperienceTankManager {
             return new ExperienceTankData();
         }
         
-        int stored = getStoredExperience(tank);
-        int capacity = getTankCapacity(tank);
+        long stored = getStoredExperience(tank);
+        long capacity = getTankCapacity(tank);
         int tier = getTankTier(tank);
         
         return new ExperienceTankData(stored, capacity, tier);
@@ -500,11 +500,11 @@ public class ExperienceTankManager {
             ExperiencePumpCapability.EXPERIENCE_PUMP_CAPABILITY, null);
         if (capability != null) {
             // Calculate the difference in capacity levels
-            int currentCapacity = capability.getMaxXp();
-            int targetCapacity = data.getMaxCapacity();
+            long currentCapacity = capability.getMaxXp();
+            long targetCapacity = data.getMaxCapacity();
             
             if (targetCapacity > currentCapacity) {
-                int levelsToAdd = (targetCapacity - currentCapacity) / CAPACITY_PER_TIER;
+                int levelsToAdd = (int) Math.min(Integer.MAX_VALUE, (targetCapacity - currentCapacity) / CAPACITY_PER_TIER);
                 capability.addCapacityLevels(levelsToAdd);
             }
             
@@ -1,5 +1,6 @@
 package com.rsring.experience;
 
+import com.rsring.service.TickBudgetScheduler;
 import net.minecraft.entity.player.EntityPlayer;
 import net.minecraft.item.ItemStack;
 import net.minecraft.inventory.IInventory;
@@ -13,16 +14,14 @@ import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 
 import java.util.*;
-import java.util.concurrent.ConcurrentHashMap;
 
 /**
- * Handles inventory change detection for experience tanks and rings
+ * Handles inventory change detection for experience tanks and rings.
+ * Snapshots and check counters live in each player's {@link PlayerSession}.
  */
 public class InventoryChangeHandler {
     private static final Logger LOGGER = LogManager.getLogger(InventoryChangeHandler.class);
     private static InventoryChangeHandler instance;
-    private final Map<UUID, InventorySnapshot> playerSnapshots = new ConcurrentHashMap<>();
-    private int tickCounter = 0;
     private static final int CHECK_INTERVAL = 10;
 
     private InventoryChangeHandler() {
@@ -42,8 +41,12 @@ public class InventoryChangeHandler {
     @SubscribeEvent
     public void onPlayerTick(TickEvent.PlayerTickEvent event) {
         if (event.phase != TickEvent.Phase.END || event.player.world.isRemote) return;
-        if (++tickCounter % CHECK_INTERVAL != 0) return;
-        checkPlayerInventoryChanges(event.player);
+        PlayerSession session = PlayerSessionManager.getInstance().get(event.player);
+        if (++session.inventoryCheckTicks < CHECK_INTERVAL) return;
+        // 快照比较可延后，预算用完时留到之后的 tick
+        EntityPlayer player = event.player;
+        TickBudgetScheduler.getInstance().defer(TickBudgetScheduler.Subsystem.INVENTORY_SNAPSHOT, player,
+            () -> checkPlayerInventoryChanges(player));
     }
 
     @SubscribeEvent(priority = EventPriority.LOW)
@@ -84,28 +87,28 @@ public class InventoryChangeHandler {
 
     public void scheduleInventoryRefresh(EntityPlayer player) {
         if (player == null) return;
-        tickCounter = CHECK_INTERVAL - 1;
+        PlayerSessionManager.getInstance().get(player).inventoryCheckTicks = CHECK_INTERVAL - 1;
     }
 
     public void forceFullInventoryRefresh(EntityPlayer player) {
         if (player == null) return;
-        playerSnapshots.remove(player.getUniqueID());
+        PlayerSessionManager.getInstance().get(player).inventorySnapshot = null;
         checkPlayerInventoryChanges(player);
     }
 
     private void checkPlayerInventoryChanges(EntityPlayer player) {
-        UUID playerId = player.getUniqueID();
+        PlayerSession session = PlayerSessionManager.getInstance().get(player);
+        session.inventoryCheckTicks = 0;
         InventorySnapshot currentSnapshot = createInventorySnapshot(player);
-        InventorySnapshot previousSnapshot = playerSnapshots.get(playerId);
+        InventorySnapshot previousSnapshot = session.inventorySnapshot;
+        session.inventorySnapshot = currentSnapshot;
 
         if (previousSnapshot == null) {
-            playerSnapshots.put(playerId, currentSnapshot);
             return;
         }
 
-        monitorBaublesChanges(player);
+        monitorBaublesChanges(player, previousSnapshot);
         compareAndFireEvents(player, previousSnapshot, currentSnapshot);
-        playerSnapshots.put(playerId, currentSnapshot);
     }
 
     private InventorySnapshot createInventorySnapshot(EntityPlayer player) {
@@ -148,7 +151,7 @@ public class InventoryChangeHandler {
         }
     }
 
-    private void monitorBaublesChanges(EntityPlayer player) {
+    private void monitorBaublesChanges(EntityPlayer player, InventorySnapshot previousSnapshot) {
         if (!Loader.isModLoaded("baubles")) return;
 
         try {
@@ -157,20 +160,15 @@ public class InventoryChangeHandler {
 
             if (handler instanceof IInventory) {
                 IInventory baubles = (IInventory) handler;
-                UUID playerId = player.getUniqueID();
-                InventorySnapshot currentSnapshot = playerSnapshots.get(playerId);
-
-                if (currentSnapshot != null) {
-                    for (int i = 0; i < baubles.getSizeInventory(); i++) {
-                        ItemStack currentStack = baubles.getStackInSlot(i);
-                        String key = InventoryChangeEvent.InventoryLocation.BAUBLES.name() + ":" + i;
-                        ItemStack previousStack = currentSnapshot.getItem(key);
-
-                        if (!ItemStack.areItemStacksEqual(currentStack, previousStack)) {
-                            if (isRelevantItem(currentStack) || isRelevantItem(previousStack)) {
-                                MinecraftForge.EVENT_BUS.post(InventoryChangeEvent.baublesChanged(
-                                    player, currentStack.isEmpty() ? previousStack : currentStack, i));
-                            }
+                for (int i = 0; i < baubles.getSizeInventory(); i++) {
+                    ItemStack currentStack = baubles.getStackInSlot(i);
+                    String key = InventoryChangeEvent.InventoryLocation.BAUBLES.name() + ":" + i;
+                    ItemStack previousStack = previousSnapshot.getItem(key);
+
+                    if (!ItemStack.areItemStacksEqual(currentStack, previousStack)) {
+                        if (isRelevantItem(currentStack) || isRelevantItem(previousStack)) {
+                            MinecraftForge.EVENT_BUS.post(InventoryChangeEvent.baublesChanged(
+                                player, currentStack.isEmpty() ? previousStack : currentStack, i));
                         }
                     }
                 }
@@ -258,7 +256,7 @@ public class InventoryChangeHandler {
         return -1;
     }
 
-    private static class InventorySnapshot {
+    static class InventorySnapshot {
         private final Map<String, ItemStack> items = new HashMap<>();
 
         public void addItem(InventoryChangeEvent.InventoryLocation location, int slot, ItemStack item) {
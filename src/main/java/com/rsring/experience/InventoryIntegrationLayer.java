@@ -144,14 +144,14 @@ public class InventoryIntegrationLayer {
     /**
      * Get total capacity across all tanks
      */
-    public int getTotalCapacity(EntityPlayer player) {
+    public long getTotalCapacity(EntityPlayer player) {
         return player == null ? 0 : scanAllInventories(player).getTotalCapacity();
     }
 
     /**
      * Get total stored experience
      */
-    public int getTotalStoredExperience(EntityPlayer player) {
+    public long getTotalStoredExperience(EntityPlayer player) {
         return player == null ? 0 : scanAllInventories(player).getTotalStored();
     }
 
@@ -199,8 +199,8 @@ public class InventoryIntegrationLayer {
     private boolean hasAvailableCapacity(ItemStack tank) {
         if (!isExperienceTank(tank)) return false;
 
-        int stored = ItemExperiencePump.getXpStoredFromNBT(tank);
-        int capacity = ItemExperiencePump.getMaxXpFromNBT(tank);
+        long stored = ItemExperiencePump.getXpStoredFromNBT(tank);
+        long capacity = ItemExperiencePump.getMaxXpFromNBT(tank);
 
         return stored < capacity;
     }
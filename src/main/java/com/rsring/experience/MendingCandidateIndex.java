@@ -0,0 +1,191 @@
+package com.rsring.experience;
+
+import com.rsring.util.BaublesHelper;
+import net.minecraft.enchantment.EnchantmentHelper;
+import net.minecraft.entity.player.EntityPlayer;
+import net.minecraft.init.Enchantments;
+import net.minecraft.item.ItemStack;
+import net.minecraftforge.common.MinecraftForge;
+import net.minecraftforge.event.entity.item.ItemTossEvent;
+import net.minecraftforge.event.entity.living.LivingEquipmentChangeEvent;
+import net.minecraftforge.event.entity.player.EntityItemPickupEvent;
+import net.minecraftforge.event.entity.player.PlayerContainerEvent;
+import net.minecraftforge.event.entity.player.PlayerDestroyItemEvent;
+import net.minecraftforge.fml.common.eventhandler.EventPriority;
+import net.minecraftforge.fml.common.eventhandler.SubscribeEvent;
+import net.minecraftforge.fml.common.gameevent.PlayerEvent;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.util.*;
+
+/**
+ * 每个玩家的经验修补候选物品索引（仅服务端）。
+ * 只记录带经验修补附魔的物品及其槽位（物品栏、护甲、副手与 Baubles），附魔只在重建时检查一次；
+ * 修复时按槽位校验仍是同一个物品，再只对其中已损坏的物品消耗经验。
+ * 物品栏变化、拾取/丢弃/合成/关闭容器、换上新装备与物品损毁等事件使索引失效；耐久变化不影响候选集合，无需重建。
+ * 索引保存在玩家的 {@link PlayerSession} 中，随会话在登出时释放、在重生与切换维度时清空。
+ */
+public class MendingCandidateIndex {
+
+    private static final Logger LOGGER = LogManager.getLogger(MendingCandidateIndex.class);
+    private static MendingCandidateIndex instance;
+
+    /** 兜底的完整重扫间隔（tick），覆盖没有事件的物品栏变化（如指令给予） */
+    private static final int RESCAN_INTERVAL = 200;
+    /** 护甲在 InventoryPlayer.getStackInSlot 中的起始索引 */
+    private static final int ARMOR_SLOT_START = 36;
+    /** 副手在 InventoryPlayer.getStackInSlot 中的索引 */
+    private static final int OFFHAND_SLOT = 40;
+
+    private MendingCandidateIndex() {
+        MinecraftForge.EVENT_BUS.register(this);
+    }
+
+    public static MendingCandidateIndex getInstance() {
+        if (instance == null) instance = new MendingCandidateIndex();
+        return instance;
+    }
+
+    public static void initialize() {
+        getInstance();
+        LOGGER.info("Mending candidate index initialized");
+    }
+
+    /**
+     * 获取玩家身上已损坏且带经验修补的物品，顺序为 物品栏 → 副手 → 护甲 → Baubles。
+     */
+    public List<ItemStack> getDamagedCandidates(EntityPlayer player) {
+        long now = player.world.getTotalWorldTime();
+        PlayerSession session = PlayerSessionManager.getInstance().get(player);
+        Index index = session.mendingIndex;
+        if (index == null || !index.valid || now - index.builtAt >= RESCAN_INTERVAL || !index.validate(player)) {
+            index = rebuild(session, player, now);
+        }
+
+        List<ItemStack> damaged = new ArrayList<>();
+        for (CandidateRef ref : index.candidates) {
+            if (ref.stack.isItemDamaged()) {
+                damaged.add(ref.stack);
+            }
+        }
+        return damaged;
+    }
+
+    public void invalidate(EntityPlayer player) {
+        if (player == null || player.world.isRemote) return;
+        PlayerSession session = PlayerSessionManager.getInstance().peek(player);
+        if (session != null && session.mendingIndex != null) {
+            session.mendingIndex.valid = false;
+        }
+    }
+
+    private Index rebuild(PlayerSession session, EntityPlayer player, long now) {
+        Index index = new Index();
+        for (int i = 0; i < player.inventory.mainInventory.size(); i++) {
+            index.accept(player.inventory.getStackInSlot(i), false, i);
+        }
+        index.accept(player.getHeldItemOffhand(), false, OFFHAND_SLOT);
+        for (int i = 0; i < player.inventory.armorInventory.size(); i++) {
+            index.accept(player.inventory.getStackInSlot(ARMOR_SLOT_START + i), false, ARMOR_SLOT_START + i);
+        }
+        if (BaublesHelper.isBaublesLoaded()) {
+            Object handler = BaublesHelper.getBaublesHandler(player);
+            int size = BaublesHelper.getSlots(handler);
+            for (int i = 0; i < size; i++) {
+                index.accept(BaublesHelper.getStackInSlot(handler, i), true, i);
+            }
+        }
+        index.builtAt = now;
+        session.mendingIndex = index;
+        return index;
+    }
+
+    @SubscribeEvent
+    public void onInventoryChange(InventoryChangeEvent event) {
+        invalidate(event.getPlayer());
+    }
+
+    @SubscribeEvent
+    public void onEquipmentChange(LivingEquipmentChangeEvent event) {
+        // 手持与护甲槽的耐久变化也会触发；损坏状态在修复时实时读取，只有换上新的修补物品才需要重建
+        if (!(event.getEntityLiving() instanceof EntityPlayer)) return;
+        if (isMendingItem(event.getTo()) && !ItemStack.areItemsEqualIgnoreDurability(event.getFrom(), event.getTo())) {
+            invalidate((EntityPlayer) event.getEntityLiving());
+        }
+    }
+
+    @SubscribeEvent
+    public void onItemDestroyed(PlayerDestroyItemEvent event) {
+        invalidate(event.getEntityPlayer());
+    }
+
+    @SubscribeEvent(priority = EventPriority.LOWEST)
+    public void onItemPickup(EntityItemPickupEvent event) {
+        if (isMendingItem(event.getItem().getItem())) {
+            invalidate(event.getEntityPlayer());
+        }
+    }
+
+    @SubscribeEvent(priority = EventPriority.LOWEST)
+    public void onItemToss(ItemTossEvent event) {
+        if (isMendingItem(event.getEntityItem().getItem())) {
+            invalidate(event.getPlayer());
+        }
+    }
+
+    @SubscribeEvent
+    public void onContainerClosed(PlayerContainerEvent.Close event) {
+        invalidate(event.getEntityPlayer());
+    }
+
+    @SubscribeEvent
+    public void onItemCrafted(PlayerEvent.ItemCraftedEvent event) {
+        invalidate(event.player);
+    }
+
+    private static boolean isMendingItem(ItemStack stack) {
+        return !stack.isEmpty() && stack.isItemStackDamageable()
+            && EnchantmentHelper.getEnchantmentLevel(Enchantments.MENDING, stack) > 0;
+    }
+
+    private static class CandidateRef {
+        private final ItemStack stack;
+        private final boolean baubles;
+        private final int slot;
+
+        CandidateRef(ItemStack stack, boolean baubles, int slot) {
+            this.stack = stack;
+            this.baubles = baubles;
+            this.slot = slot;
+        }
+    }
+
+    static class Index {
+        private final List<CandidateRef> candidates = new ArrayList<>();
+        private boolean valid = true;
+        private long builtAt;
+
+        void accept(ItemStack stack, boolean baubles, int slot) {
+            if (isMendingItem(stack)) {
+                candidates.add(new CandidateRef(stack, baubles, slot));
+            }
+        }
+
+        /** 校验每个记录的槽位是否仍是同一个物品 */
+        boolean validate(EntityPlayer player) {
+            Object baublesHandler = null;
+            for (CandidateRef ref : candidates) {
+                ItemStack current;
+                if (ref.baubles) {
+                    if (baublesHandler == null) baublesHandler = BaublesHelper.getBaublesHandler(player);
+                    current = BaublesHelper.getStackInSlot(baublesHandler, ref.slot);
+                } else {
+                    current = player.inventory.getStackInSlot(ref.slot);
+                }
+                if (current != ref.stack || current.isEmpty()) return false;
+            }
+            return true;
+        }
+    }
+}
@@ -0,0 +1,50 @@
+package com.rsring.experience;
+
+/**
+ * 单个在线玩家的会话状态，集中保存 rsring 各模块的每玩家缓存。
+ * 由 {@link PlayerSessionManager} 在登录时创建、登出时整体释放；重生与切换维度时清空缓存。
+ */
+public class PlayerSession {
+
+    /** 周期性工作的相位偏移，由会话管理器轮流分配，使各玩家的工作均匀错开 */
+    private final int tickPhase;
+    /** InventoryChangeHandler 的上次物品栏快照 */
+    InventoryChangeHandler.InventorySnapshot inventorySnapshot;
+    /** 距上次物品栏快照比较经过的 tick 数 */
+    int inventoryCheckTicks;
+    /** PlayerTankIndex 的储罐索引 */
+    PlayerTankIndex.Index tankIndex;
+    /** MendingCandidateIndex 的经验修补候选索引 */
+    MendingCandidateIndex.Index mendingIndex;
+    /** PlayerXpLedger 中本 tick 尚未提交的经验增加量，重置会话时保留 */
+    long xpDelta;
+    /** RingDetectionSystem 的戒指检测缓存 */
+    private RingDetectionResult ringDetection;
+
+    PlayerSession(int tickPhase) {
+        this.tickPhase = tickPhase;
+    }
+
+    public int getTickPhase() {
+        return tickPhase;
+    }
+
+    public RingDetectionResult getRingDetection() {
+        return ringDetection;
+    }
+
+    public void setRingDetection(RingDetectionResult ringDetection) {
+        this.ringDetection = ringDetection;
+    }
+
+    /**
+     * 清空全部缓存，下次访问时各模块重新构建。
+     */
+    void reset() {
+        inventorySnapshot = null;
+        inventoryCheckTicks = 0;
+        tankIndex = null;
+        mendingIndex = null;
+        ringDetection = null;
+    }
+}
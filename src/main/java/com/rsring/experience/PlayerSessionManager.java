@@ -0,0 +1,117 @@
+package com.rsring.experience;
+
+import net.minecraft.entity.player.EntityPlayer;
+import net.minecraftforge.common.MinecraftForge;
+import net.minecraftforge.fml.common.eventhandler.EventPriority;
+import net.minecraftforge.fml.common.eventhandler.SubscribeEvent;
+import net.minecraftforge.fml.common.gameevent.PlayerEvent;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.util.*;
+
+/**
+ * 在线玩家会话管理器。
+ * 服务端按 UUID 保存每名在线玩家的 {@link PlayerSession}，登录时创建、登出时移除，重生与切换维度时清空缓存；
+ * 客户端只有本地玩家，单独保存一个会话，避免单人游戏中与内置服务端共用同一 UUID 的缓存。
+ */
+public class PlayerSessionManager {
+
+    private static final Logger LOGGER = LogManager.getLogger(PlayerSessionManager.class);
+    private static PlayerSessionManager instance;
+
+    private final Map<UUID, PlayerSession> sessions = new HashMap<>();
+    private UUID clientSessionId;
+    private PlayerSession clientSession;
+    /** 下一个会话的相位偏移 */
+    private int nextTickPhase;
+
+    private PlayerSessionManager() {
+        MinecraftForge.EVENT_BUS.register(this);
+    }
+
+    public static PlayerSessionManager getInstance() {
+        if (instance == null) instance = new PlayerSessionManager();
+        return instance;
+    }
+
+    public static void initialize() {
+        getInstance();
+        LOGGER.info("Player session manager initialized");
+    }
+
+    /**
+     * 获取玩家的会话，不存在时创建（如登录事件之前的访问）。
+     */
+    public PlayerSession get(EntityPlayer player) {
+        if (player.world.isRemote) {
+            UUID id = player.getUniqueID();
+            if (clientSession == null || !id.equals(clientSessionId)) {
+                clientSessionId = id;
+                clientSession = new PlayerSession(0);
+            }
+            return clientSession;
+        }
+        return sessions.computeIfAbsent(player.getUniqueID(), k -> newSession());
+    }
+
+    /**
+     * 获取玩家已有的会话，不存在时返回 null。
+     */
+    public PlayerSession peek(EntityPlayer player) {
+        if (player == null) return null;
+        if (player.world.isRemote) {
+            return player.getUniqueID().equals(clientSessionId) ? clientSession : null;
+        }
+        return sessions.get(player.getUniqueID());
+    }
+
+    /**
+     * 清除所有会话中的戒指检测缓存。
+     */
+    public void clearRingDetections() {
+        for (PlayerSession session : sessions.values()) {
+            session.setRingDetection(null);
+        }
+        if (clientSession != null) {
+            clientSession.setRingDetection(null);
+        }
+    }
+
+    @SubscribeEvent(priority = EventPriority.HIGHEST)
+    public void onPlayerLoggedIn(PlayerEvent.PlayerLoggedInEvent event) {
+        if (event.player == null || event.player.world.isRemote) return;
+        sessions.put(event.player.getUniqueID(), newSession());
+    }
+
+    @SubscribeEvent(priority = EventPriority.LOWEST)
+    public void onPlayerLoggedOut(PlayerEvent.PlayerLoggedOutEvent event) {
+        if (event.player != null) {
+            sessions.remove(event.player.getUniqueID());
+        }
+    }
+
+    @SubscribeEvent(priority = EventPriority.HIGHEST)
+    public void onPlayerRespawn(PlayerEvent.PlayerRespawnEvent event) {
+        reset(event.player);
+    }
+
+    @SubscribeEvent(priority = EventPriority.HIGHEST)
+    public void onPlayerChangedDimension(PlayerEvent.PlayerChangedDimensionEvent event) {
+        reset(event.player);
+    }
+
+    private PlayerSession newSession() {
+        // 连续分配的相位对任意间隔取模都是均匀分布的
+        int phase = nextTickPhase;
+        nextTickPhase = (nextTickPhase + 1) & Integer.MAX_VALUE;
+        return new PlayerSession(phase);
+    }
+
+    private void reset(EntityPlayer player) {
+        PlayerSession session = peek(player);
+        if (session != null) {
+            session.reset();
+        }
+    }
+}
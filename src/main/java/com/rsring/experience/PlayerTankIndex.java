@@ -0,0 +1,216 @@
+package com.rsring.experience;
+
+import com.rsring.item.ItemExperiencePump;
+import com.rsring.util.BaublesHelper;
+import net.minecraft.entity.player.EntityPlayer;
+import net.minecraft.item.ItemStack;
+import net.minecraftforge.common.MinecraftForge;
+import net.minecraftforge.event.entity.item.ItemTossEvent;
+import net.minecraftforge.event.entity.player.EntityItemPickupEvent;
+import net.minecraftforge.event.entity.player.PlayerContainerEvent;
+import net.minecraftforge.fml.common.eventhandler.EventPriority;
+import net.minecraftforge.fml.common.eventhandler.SubscribeEvent;
+import net.minecraftforge.fml.common.gameevent.PlayerEvent;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.util.*;
+
+/**
+ * 每个玩家的经验储罐索引（仅服务端）。
+ * 记录储罐的引用及其槽位，扫描时只校验这些槽位是否仍是同一个物品，不再遍历整个物品栏；
+ * 同一 tick 内重复的扫描直接复用上次的结果（含总量），控制器搬运经验后标记失效。
+ * InventoryChangeEvent、拾取/丢弃/合成/关闭容器等事件使索引失效，下次扫描时完整重建。
+ * 索引保存在玩家的 {@link PlayerSession} 中，随会话在登出时释放、在重生与切换维度时清空。
+ */
+public class PlayerTankIndex {
+
+    private static final Logger LOGGER = LogManager.getLogger(PlayerTankIndex.class);
+    private static PlayerTankIndex instance;
+
+    /** 兜底的完整重扫间隔（tick），覆盖没有事件的物品栏变化（如指令给予） */
+    private static final int RESCAN_INTERVAL = 200;
+    /** 副手在 InventoryPlayer.getStackInSlot 中的索引 */
+    private static final int OFFHAND_SLOT = 40;
+
+    private PlayerTankIndex() {
+        MinecraftForge.EVENT_BUS.register(this);
+    }
+
+    public static PlayerTankIndex getInstance() {
+        if (instance == null) instance = new PlayerTankIndex();
+        return instance;
+    }
+
+    public static void initialize() {
+        getInstance();
+        LOGGER.info("Player tank index initialized");
+    }
+
+    /**
+     * 获取玩家的储罐扫描结果，索引有效时不遍历物品栏。
+     */
+    public TankScanResult getScan(EntityPlayer player) {
+        Index index = getIndex(player);
+        if (index.result == null) {
+            index.result = index.buildResult();
+        }
+        return index.result;
+    }
+
+    /**
+     * 获取玩家储罐的分配顺序，随索引重建，经验变化时增量更新。
+     */
+    public TankFillOrder getFillOrder(EntityPlayer player) {
+        Index index = getIndex(player);
+        if (index.fillOrder == null) {
+            List<ItemStack> tanks = new ArrayList<>(index.tanks.size());
+            for (TankRef ref : index.tanks) {
+                tanks.add(ref.stack);
+            }
+            index.fillOrder = new TankFillOrder(tanks);
+        }
+        return index.fillOrder;
+    }
+
+    private Index getIndex(EntityPlayer player) {
+        long now = player.world.getTotalWorldTime();
+        PlayerSession session = PlayerSessionManager.getInstance().get(player);
+        Index index = session.tankIndex;
+
+        if (index == null || !index.valid || now - index.builtAt >= RESCAN_INTERVAL) {
+            index = rebuild(session, player, now);
+        } else if (index.validatedAt != now) {
+            if (!index.validate(player)) {
+                index = rebuild(session, player, now);
+            }
+            index.validatedAt = now;
+            index.result = null;
+        }
+        return index;
+    }
+
+    /**
+     * 储罐内的经验被修改后调用，使缓存的总量在下次扫描时重新计算。
+     */
+    public void markContentsChanged(EntityPlayer player) {
+        PlayerSession session = PlayerSessionManager.getInstance().peek(player);
+        if (session != null && session.tankIndex != null) {
+            session.tankIndex.result = null;
+        }
+    }
+
+    public void invalidate(EntityPlayer player) {
+        if (player == null || player.world.isRemote) return;
+        PlayerSession session = PlayerSessionManager.getInstance().peek(player);
+        if (session != null && session.tankIndex != null) {
+            session.tankIndex.valid = false;
+        }
+    }
+
+    private Index rebuild(PlayerSession session, EntityPlayer player, long now) {
+        Index index = new Index();
+        // 顺序与 InventoryIntegrationLayer 一致：物品栏 → 快捷栏 + 副手 → Baubles
+        for (int i = 9; i < 36; i++) {
+            index.accept(player.inventory.getStackInSlot(i), TankScanResult.InventoryType.PLAYER_INVENTORY, i);
+        }
+        for (int i = 0; i < 9; i++) {
+            index.accept(player.inventory.getStackInSlot(i), TankScanResult.InventoryType.HOTBAR, i);
+        }
+        index.accept(player.getHeldItemOffhand(), TankScanResult.InventoryType.HOTBAR, OFFHAND_SLOT);
+        if (BaublesHelper.isBaublesLoaded()) {
+            Object handler = BaublesHelper.getBaublesHandler(player);
+            int size = BaublesHelper.getSlots(handler);
+            for (int i = 0; i < size; i++) {
+                index.accept(BaublesHelper.getStackInSlot(handler, i), TankScanResult.InventoryType.BAUBLES, i);
+            }
+        }
+        index.builtAt = now;
+        index.validatedAt = now;
+        session.tankIndex = index;
+        return index;
+    }
+
+    @SubscribeEvent
+    public void onInventoryChange(InventoryChangeEvent event) {
+        if (event.affectsTanks() || event.affectsBaubles()
+            || event.getChangeType() == InventoryChangeEvent.ChangeType.INVENTORY_REFRESHED) {
+            invalidate(event.getPlayer());
+        }
+    }
+
+    @SubscribeEvent(priority = EventPriority.LOWEST)
+    public void onItemPickup(EntityItemPickupEvent event) {
+        if (event.getItem().getItem().getItem() instanceof ItemExperiencePump) {
+            invalidate(event.getEntityPlayer());
+        }
+    }
+
+    @SubscribeEvent(priority = EventPriority.LOWEST)
+    public void onItemToss(ItemTossEvent event) {
+        if (event.getEntityItem().getItem().getItem() instanceof ItemExperiencePump) {
+            invalidate(event.getPlayer());
+        }
+    }
+
+    @SubscribeEvent
+    public void onContainerClosed(PlayerContainerEvent.Close event) {
+        invalidate(event.getEntityPlayer());
+    }
+
+    @SubscribeEvent
+    public void onItemCrafted(PlayerEvent.ItemCraftedEvent event) {
+        invalidate(event.player);
+    }
+
+    private static class TankRef {
+        private final ItemStack stack;
+        private final TankScanResult.InventoryType type;
+        private final int slot;
+
+        TankRef(ItemStack stack, TankScanResult.InventoryType type, int slot) {
+            this.stack = stack;
+            this.type = type;
+            this.slot = slot;
+        }
+    }
+
+    static class Index {
+        private final List<TankRef> tanks = new ArrayList<>();
+        private boolean valid = true;
+        private long builtAt;
+        private long validatedAt;
+        private TankScanResult result;
+        private TankFillOrder fillOrder;
+
+        void accept(ItemStack stack, TankScanResult.InventoryType type, int slot) {
+            if (!stack.isEmpty() && stack.getItem() instanceof ItemExperiencePump) {
+                tanks.add(new TankRef(stack, type, slot));
+            }
+        }
+
+        /** 校验每个记录的槽位是否仍是同一个储罐 */
+        boolean validate(EntityPlayer player) {
+            Object baublesHandler = null;
+            for (TankRef ref : tanks) {
+                ItemStack current;
+                if (ref.type == TankScanResult.InventoryType.BAUBLES) {
+                    if (baublesHandler == null) baublesHandler = BaublesHelper.getBaublesHandler(player);
+                    current = BaublesHelper.getStackInSlot(baublesHandler, ref.slot);
+                } else {
+                    current = player.inventory.getStackInSlot(ref.slot);
+                }
+                if (current != ref.stack || current.isEmpty()) return false;
+            }
+            return true;
+        }
+
+        TankScanResult buildResult() {
+            TankScanResult.Builder builder = new TankScanResult.Builder();
+            for (TankRef ref : tanks) {
+                builder.addTank(ref.stack, ref.type);
+            }
+            return builder.build();
+        }
+    }
+}
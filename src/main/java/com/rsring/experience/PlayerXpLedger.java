@@ -0,0 +1,187 @@
+package com.rsring.experience;
+
+import com.rsring.util.XpHelper;
+import net.minecraft.entity.player.EntityPlayer;
+import net.minecraft.server.MinecraftServer;
+import net.minecraftforge.common.MinecraftForge;
+import net.minecraftforge.fml.common.FMLCommonHandler;
+import net.minecraftforge.fml.common.eventhandler.EventPriority;
+import net.minecraftforge.fml.common.eventhandler.SubscribeEvent;
+import net.minecraftforge.fml.common.gameevent.PlayerEvent;
+import net.minecraftforge.fml.common.gameevent.TickEvent;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.util.*;
+
+/**
+ * 玩家经验账本。
+ * 服务端同一 tick 内给予玩家的经验只累计到 {@link PlayerSession} 中的整数差额，读取总经验与等级时叠加差额；
+ * 玩家 tick 结束时一次性提交，只重算一次等级与进度条。网络包等玩家 tick 之外的修改在服务器 tick 结束时提交，
+ * 登出前也会提交。提交时差额叠加到玩家当前的经验上，期间原版途径获得的经验不会被覆盖。
+ * 扣除经验先抵消未提交的差额，其余部分立即写入玩家经验：原版附魔、铁砧等直接读取 experienceLevel，
+ * 延后扣除会让同一批经验既存入储罐又被玩家花掉。
+ * 客户端没有账本，直接读写玩家经验。
+ */
+public class PlayerXpLedger {
+
+    private static final Logger LOGGER = LogManager.getLogger(PlayerXpLedger.class);
+    private static PlayerXpLedger instance;
+
+    /** 有未提交差额的玩家 */
+    private final Set<UUID> dirty = new HashSet<>();
+
+    private PlayerXpLedger() {
+        MinecraftForge.EVENT_BUS.register(this);
+    }
+
+    public static PlayerXpLedger getInstance() {
+        if (instance == null) instance = new PlayerXpLedger();
+        return instance;
+    }
+
+    public static void initialize() {
+        getInstance();
+        LOGGER.info("Player XP ledger initialized");
+    }
+
+    /**
+     * 获取玩家的总经验点数（含本 tick 未提交的差额）。
+     */
+    public int getTotal(EntityPlayer player) {
+        if (player == null) return 0;
+        int actual = XpHelper.getPlayerTotalExperience(player);
+        PlayerSession session = getPendingSession(player);
+        return session == null ? actual : clamp(actual + session.xpDelta);
+    }
+
+    /**
+     * 获取玩家的经验等级（含本 tick 未提交的差额）。
+     */
+    public int getLevel(EntityPlayer player) {
+        if (player == null) return 0;
+        if (getPendingSession(player) == null) return player.experienceLevel;
+        return XpHelper.getLevelForExperience(getTotal(player));
+    }
+
+    /**
+     * 记入给予玩家的经验。
+     * @return 实际记入的经验点数
+     */
+    public int add(EntityPlayer player, int amount) {
+        if (player == null || amount <= 0) return 0;
+        if (player.world.isRemote) {
+            XpHelper.addExperienceToPlayer(player, amount);
+            return amount;
+        }
+        int added = (int) Math.min(amount, (long) Integer.MAX_VALUE - getTotal(player));
+        if (added > 0) {
+            record(player, added);
+        }
+        return added;
+    }
+
+    /**
+     * 从玩家身上扣除经验，不超过玩家当前（含差额）的总经验。
+     * 先抵消本 tick 未提交的差额，不足部分立即从玩家经验中扣除。
+     * @return 实际扣除的经验点数
+     */
+    public int remove(EntityPlayer player, int amount) {
+        if (player == null || amount <= 0) return 0;
+        if (player.world.isRemote) {
+            return XpHelper.removeExperienceFromPlayer(player, amount);
+        }
+        int removed = 0;
+        PlayerSession session = getPendingSession(player);
+        if (session != null && session.xpDelta > 0) {
+            removed = (int) Math.min(amount, session.xpDelta);
+            session.xpDelta -= removed;
+        }
+        if (removed < amount) {
+            removed += XpHelper.removeExperienceFromPlayer(player, amount - removed);
+        }
+        return removed;
+    }
+
+    /**
+     * 从玩家身上扣除指定等级数的经验（按含差额的等级计算，立即扣除）。
+     * @return 实际扣除的经验点数
+     */
+    public int removeLevels(EntityPlayer player, int levels) {
+        if (player == null || levels <= 0) return 0;
+        int targetLevel = Math.max(0, getLevel(player) - levels);
+        int toRemove = Math.max(0, getTotal(player) - XpHelper.getExperienceForLevel(targetLevel));
+        return toRemove > 0 ? remove(player, toRemove) : 0;
+    }
+
+    /**
+     * 记入给予玩家的指定等级数的经验（按含差额的等级计算）。
+     * @return 实际记入的经验点数
+     */
+    public int addLevels(EntityPlayer player, int levels) {
+        if (player == null || levels <= 0) return 0;
+        int targetLevel = getLevel(player) + levels;
+        int toAdd = Math.max(0, XpHelper.getExperienceForLevel(targetLevel) - getTotal(player));
+        return toAdd > 0 ? add(player, toAdd) : 0;
+    }
+
+    /**
+     * 将玩家未提交的差额写入玩家经验。
+     */
+    public void commit(EntityPlayer player) {
+        if (player == null || player.world.isRemote) return;
+        if (!dirty.remove(player.getUniqueID())) return;
+        PlayerSession session = PlayerSessionManager.getInstance().peek(player);
+        if (session == null || session.xpDelta == 0) return;
+
+        long delta = session.xpDelta;
+        session.xpDelta = 0;
+        long total = XpHelper.getPlayerTotalExperience(player) + delta;
+        if (total < 0 || total > Integer.MAX_VALUE) {
+            // 差额只含增加量，正常不会越界；越界说明有经验被凭空创造或丢失，记录而不是静默截断
+            LOGGER.error("XP ledger commit for {} out of range: total {} (pending {}), clamped",
+                player.getName(), total, delta);
+        }
+        XpHelper.setPlayerTotalExperience(player, clamp(total));
+    }
+
+    @SubscribeEvent(priority = EventPriority.LOWEST)
+    public void onPlayerTick(TickEvent.PlayerTickEvent event) {
+        if (event.phase != TickEvent.Phase.END || dirty.isEmpty()) return;
+        commit(event.player);
+    }
+
+    @SubscribeEvent(priority = EventPriority.LOWEST)
+    public void onServerTick(TickEvent.ServerTickEvent event) {
+        if (event.phase != TickEvent.Phase.END || dirty.isEmpty()) return;
+
+        MinecraftServer server = FMLCommonHandler.instance().getMinecraftServerInstance();
+        for (UUID id : new ArrayList<>(dirty)) {
+            EntityPlayer player = server == null ? null : server.getPlayerList().getPlayerByUUID(id);
+            if (player != null) {
+                commit(player);
+            } else {
+                dirty.remove(id);
+            }
+        }
+    }
+
+    @SubscribeEvent(priority = EventPriority.HIGHEST)
+    public void onPlayerLoggedOut(PlayerEvent.PlayerLoggedOutEvent event) {
+        commit(event.player);
+    }
+
+    private void record(EntityPlayer player, int delta) {
+        PlayerSessionManager.getInstance().get(player).xpDelta += delta;
+        dirty.add(player.getUniqueID());
+    }
+
+    private PlayerSession getPendingSession(EntityPlayer player) {
+        if (player.world.isRemote || !dirty.contains(player.getUniqueID())) return null;
+        return PlayerSessionManager.getInstance().peek(player);
+    }
+
+    private static int clamp(long xp) {
+        return (int) Math.max(0L, Math.min(Integer.MAX_VALUE, xp));
+    }
+}
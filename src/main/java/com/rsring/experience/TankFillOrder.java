@@ -0,0 +1,169 @@
+package com.rsring.experience;
+
+import com.rsring.capability.ExperiencePumpCapability;
+import com.rsring.capability.IExperiencePumpCapability;
+import com.rsring.item.ItemExperiencePump;
+import net.minecraft.item.ItemStack;
+
+import java.util.*;
+
+/**
+ * 控制器分配经验时的储罐顺序，服务端每个玩家一份，随储罐索引重建。
+ * 两个堆分别按 已存经验降序（取出）与 填充率升序（注入）排列，键值直接读取能力而不是 NBT；
+ * 储罐变化时只为它压入新节点，旧节点在弹出时按版本号惰性丢弃。每次分配只弹出实际用到的储罐，
+ * 不再复制列表并全量排序。经验被其他途径（抽取、修补、网络包）修改时由能力的变化回调标记对应储罐，
+ * 分配前只更新被标记的储罐，不轮询全部储罐。
+ */
+public class TankFillOrder {
+
+    private static final Comparator<Node> MOST_STORED_FIRST = (a, b) -> Long.compare(b.stored, a.stored);
+    private static final Comparator<Node> LEAST_FILLED_FIRST = (a, b) -> Double.compare(a.fill, b.fill);
+
+    private final List<Entry> entries = new ArrayList<>();
+    private final PriorityQueue<Node> byStored = new PriorityQueue<>(MOST_STORED_FIRST);
+    private final PriorityQueue<Node> byFill = new PriorityQueue<>(LEAST_FILLED_FIRST);
+    /** 键值已变化、尚未重新入堆的储罐 */
+    private final List<Entry> dirty = new ArrayList<>();
+
+    public TankFillOrder(List<ItemStack> tanks) {
+        for (ItemStack tank : tanks) {
+            IExperiencePumpCapability cap = tank.getCapability(ExperiencePumpCapability.EXPERIENCE_PUMP_CAPABILITY, null);
+            if (cap != null) {
+                Entry entry = new Entry(tank, cap);
+                entries.add(entry);
+                push(entry);
+                cap.setChangeListener(() -> markDirty(entry));
+            }
+        }
+    }
+
+    /**
+     * 从储存经验最多的储罐开始取出经验。
+     * @return 实际取出的经验点数
+     */
+    public int extract(int amount) {
+        refresh();
+        int remaining = amount;
+        while (remaining > 0) {
+            Node node = pollValid(byStored);
+            if (node == null) break;
+            if (node.stored <= 0) {
+                // 最多的储罐也是空的
+                byStored.offer(node);
+                break;
+            }
+            Entry entry = node.entry;
+            int taken = entry.cap.takeXp((int) Math.min(remaining, node.stored));
+            remaining -= taken;
+            ItemExperiencePump.syncCapabilityToStack(entry.stack, entry.cap);
+            update(entry);
+            if (taken <= 0) break;
+        }
+        return amount - remaining;
+    }
+
+    /**
+     * 从填充率最低的储罐开始注入经验。
+     * @return 实际注入的经验点数
+     */
+    public int inject(int amount) {
+        refresh();
+        int remaining = amount;
+        while (remaining > 0) {
+            Node node = pollValid(byFill);
+            if (node == null) break;
+            if (node.max - node.stored <= 0) {
+                // 填充率最低的储罐也已满
+                byFill.offer(node);
+                break;
+            }
+            Entry entry = node.entry;
+            int added = entry.cap.addXp((int) Math.min(remaining, node.max - node.stored));
+            remaining -= added;
+            ItemExperiencePump.syncCapabilityToStack(entry.stack, entry.cap);
+            update(entry);
+            if (added <= 0) break;
+        }
+        return amount - remaining;
+    }
+
+    private void markDirty(Entry entry) {
+        if (!entry.dirty) {
+            entry.dirty = true;
+            dirty.add(entry);
+        }
+    }
+
+    /**
+     * 只为被标记变化的储罐重新入堆。
+     */
+    private void refresh() {
+        if (!dirty.isEmpty()) {
+            for (Entry entry : dirty) {
+                if (entry.dirty) update(entry);
+            }
+            dirty.clear();
+        }
+        // 作废节点过多时重建堆
+        if (byStored.size() > entries.size() * 2 + 8 || byFill.size() > entries.size() * 2 + 8) {
+            byStored.clear();
+            byFill.clear();
+            for (Entry entry : entries) {
+                push(entry);
+            }
+        }
+    }
+
+    private void update(Entry entry) {
+        entry.version++;
+        entry.dirty = false;
+        push(entry);
+    }
+
+    private void push(Entry entry) {
+        entry.stored = entry.cap.getXpStored();
+        entry.max = entry.cap.getMaxXp();
+        Node node = new Node(entry);
+        byStored.offer(node);
+        byFill.offer(node);
+    }
+
+    private static Node pollValid(PriorityQueue<Node> heap) {
+        Node node;
+        while ((node = heap.poll()) != null) {
+            if (node.version == node.entry.version) return node;
+        }
+        return null;
+    }
+
+    private static class Entry {
+        private final ItemStack stack;
+        private final IExperiencePumpCapability cap;
+        private long stored;
+        private long max;
+        private int version;
+        private boolean dirty;
+
+        Entry(ItemStack stack, IExperiencePumpCapability cap) {
+            this.stack = stack;
+            this.cap = cap;
+        }
+    }
+
+    /** 入堆时的键值快照 */
+    private static class Node {
+        private final Entry entry;
+        private final int version;
+        private final long stored;
+        private final long max;
+        private final double fill;
+
+        Node(Entry entry) {
+            this.entry = entry;
+            this.version = entry.version;
+            this.stored = entry.stored;
+            this.max = entry.max;
+            this.fill = max > 0 ? (double) stored / max : 1.0;
+        }
+    }
+}
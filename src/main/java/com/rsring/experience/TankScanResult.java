@@ -32,8 +32,8 @@ public class TankScanResult {
     }
     
     private final List<ItemStack> allTanks;                    // All detected tanks
-    private final int totalCapacity;                           // Combined capacity
-    private final int totalStored;                             // Combined stored XP
+    private final long totalCapacity;                          // Combined capacity
+    private final long totalStored;                            // Combined stored XP
     private final Map<InventoryType, List<ItemStack>> tanksByLocation; // Tanks categorized by location
     private final long scanTimestamp;                          // When the scan was performed
     
@@ -71,11 +71,11 @@ public class TankScanResult {
         return new ArrayList<>(allTanks);
     }
     
-    public int getTotalCapacity() {
+    public long getTotalCapacity() {
         return totalCapacity;
     }
     
-    public int getTotalStored() {
+    public long getTotalStored() {
         return totalStored;
     }
     
@@ -133,7 +133,7 @@ public class TankScanResult {
     /**
      * 获取所有储罐的剩余总容量。
      */
-    public int getTotalRemainingCapacity() {
+    public long getTotalRemainingCapacity() {
         return totalCapacity - totalStored;
     }
     
@@ -165,14 +165,14 @@ public class TankScanResult {
     /**
      * 计算所有储罐的总容量。
      */
-    private int calculateTotalCapacity() {
-        int total = 0;
+    private long calculateTotalCapacity() {
+        long total = 0;
         
         for (ItemStack tank : allTanks) {
             if (tank.isEmpty()) continue;
             
             // Get capacity from the tank's capability or NBT data
-            int capacity = getTankCapacity(tank);
+            long capacity = getTankCapacity(tank);
             total += capacity;
         }
         
@@ -182,14 +182,14 @@ public class TankScanResult {
     /**
      * 计算所有储罐中存储的总经验值。
      */
-    private int calculateTotalStored() {
-        int total = 0;
+    private long calculateTotalStored() {
+        long total = 0;
         
         for (ItemStack tank : allTanks) {
             if (tank.isEmpty()) continue;
             
             // Get stored XP from the tank's capability or NBT data
-            int stored = getTankStoredXP(tank);
+            long stored = getTankStoredXP(tank);
             total += stored;
         }
         
@@ -200,7 +200,7 @@ public class TankScanResult {
      * 获取单个储罐的容量。
      * 使用现有的 ItemExperiencePump 方法以保持兼容性。
      */
-    private int getTankCapacity(ItemStack tank) {
+    private long getTankCapacity(ItemStack tank) {
         if (tank.isEmpty() || !(tank.getItem() instanceof com.rsring.item.ItemExperiencePump)) {
             return 0;
         }
@@ -212,7 +212,7 @@ public class TankScanResult {
      * 获取单个储罐存储的经验值。
      * 使用现有的 ItemExperiencePump 方法以保持兼容性。
      */
-    private int getTankStoredXP(ItemStack tank) {
+    private long getTankStoredXP(ItemStack tank) {
         if (tank.isEmpty() || !(tank.getItem() instanceof com.rsring.item.ItemExperiencePump)) {
             return 0;
         }
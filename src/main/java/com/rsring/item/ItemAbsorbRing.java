@@ -24,11 +24,7 @@ import net.minecraft.util.ResourceLocation;
 import net.minecraftforge.fml.relauncher.Side;
 import net.minecraftforge.fml.relauncher.SideOnly;
 import net.minecraft.creativetab.CreativeTabs;
-import net.minecraft.tileentity.TileEntity;
 import net.minecraftforge.common.DimensionManager;
-import net.minecraftforge.items.CapabilityItemHandler;
-import net.minecraftforge.items.IItemHandler;
-import net.minecraftforge.items.ItemHandlerHelper;
 import net.minecraft.util.text.TextFormatting;
 import net.minecraftforge.fml.common.Optional;
 import baubles.api.IBauble;
@@ -292,17 +288,20 @@ public class ItemAbsorbRing extends Item implements IBauble {
         EntityPlayer entityPlayer = (EntityPlayer) player;
         IRsRingCapability capability = itemstack.getCapability(RsRingCapability.RS_RING_CAPABILITY, null);
         RsRingCapability.refreshEnergyStorage(capability);
-        if (capability != null && capability.isBound()) {
-            com.rsring.capability.RsRingCapability.syncCapabilityToStack(itemstack, capability);
-        }
+        if (capability == null || !capability.isBound()) return;
 
-        if (capability == null || !capability.isEnabled() || !capability.isBound()) return;
-        IEnergyStorage energyStorage = capability.getEnergyStorage();
-        int costPerItem = getEnergyCostPerItem();
-        if (costPerItem > 0 && energyStorage.getEnergyStored() < costPerItem) return;
+        // 事件驱动模式下每 tick 登记，新掉落物在生成的同一 tick 内被吸收；无新掉落物时调度器直接跳过
+        // 轮询模式下按戒指的自适应间隔扫描，空闲时逐步放慢
+        com.rsring.capability.RingSweepTimer timer = capability.getSweepTimer();
+        long now = entityPlayer.world.getTotalWorldTime();
+        boolean due = com.rsring.service.ItemCaptureQueue.isEnabled() || timer.isDue(now);
+
+        // 只在状态变化时重写物品 NBT，能量变化合并到扫描 tick 写入
+        RsRingCapability.syncCapabilityToStackIfDirty(itemstack, capability, due);
 
-        int interval = Math.max(1, com.rsring.config.RsRingConfig.absorbRing.absorptionInterval);
-        if (entityPlayer.ticksExisted % interval == 0) {
+        if (!due) return;
+        timer.schedule(now);
+        if (capability.isEnabled()) {
             absorbItemsToChest(entityPlayer, capability);
         }
     }
@@ -355,278 +354,267 @@ public class ItemAbsorbRing extends Item implements IBauble {
 
     private void absorbItemsToChest(EntityPlayer player, IRsRingCapability capability) {
         if (capability == null || !capability.isBound()) return;
-        if (capability.isWhitelistMode() && !hasAnyFilter(capability)) return;
 
-        net.minecraft.world.World targetWorld = capability.getTerminalWorld();
+        // 目标区块未加载时不在玩家 tick 中加载目标区块，吸收的物品先进入收件箱
         BlockPos targetPos = capability.getTerminalPos();
-        if (targetWorld == null) {
-            int dim = capability.getTerminalDimension();
-            targetWorld = DimensionManager.getWorld(dim);
+        net.minecraft.world.World targetWorld = com.rsring.service.TargetAvailabilityTracker.getInstance()
+            .getAvailableWorld(capability.getTerminalDimension(), targetPos);
+        com.rsring.capability.RingInbox inbox = capability.getInbox();
+        long now = player.world.getTotalWorldTime();
+        if (targetWorld != null && !inbox.isEmpty() && inbox.canRetry(now)) {
+            flushInbox(player, targetWorld, targetPos, inbox, now);
         }
-        if (targetWorld == null || targetPos == null) return;
 
-        targetWorld.getChunk(targetPos);
-        if (!targetWorld.isBlockLoaded(targetPos)) return;
-
-        double range = Math.max(1.0D, com.rsring.config.RsRingConfig.absorbRing.absorptionRange);
-        List<net.minecraft.entity.item.EntityItem> items = player.world.getEntitiesWithinAABB(
-            net.minecraft.entity.item.EntityItem.class,
-            player.getEntityBoundingBox().grow(range)
-        );
-
-        IEnergyStorage energyStorage = capability.getEnergyStorage();
         int costPerItem = getEnergyCostPerItem();
+        if (costPerItem > 0 && capability.getEnergyStorage().getEnergyStored() < costPerItem) return;
+        com.rsring.capability.RingFilterMatcher filter = capability.getFilterMatcher();
+        if (filter.isWhitelistMode() && filter.isEmpty()) return;
 
-        for (net.minecraft.entity.item.EntityItem item : items) {
-            if (item.isDead) continue;
-            ItemStack itemStack = item.getItem();
-            if (itemStack.isEmpty()) continue;
-            if (costPerItem > 0 && energyStorage.getEnergyStored() < costPerItem) continue;
+        // 目标不可用且收件箱已满时无处存放，跳过本次扫描
+        if (targetWorld == null && inbox.isFull()) return;
 
-            if (shouldFilterItem(capability, itemStack)) continue;
+        // 掉落物的收集与分配由全服调度器在本 tick 结束时统一处理
+        com.rsring.service.AbsorptionScheduler.getInstance().schedule(player, this, capability);
+    }
 
-            int originalCount = itemStack.getCount();
-            int maxAffordable = costPerItem > 0 ? Math.max(1, energyStorage.getEnergyStored() / costPerItem) : Integer.MAX_VALUE;
-            int attemptCount = Math.min(originalCount, maxAffordable);
-            ItemStack attemptStack = itemStack.copy();
-            attemptStack.setCount(attemptCount);
+    /**
+     * 将收件箱中的物品批量送往目标，全部送出或有进展时重置退避，否则延后重试。
+     * 目标已加载却反复拒收的堆叠移出收件箱，掉落在玩家脚下。
+     */
+    private void flushInbox(EntityPlayer player, World targetWorld, BlockPos targetPos,
+                            com.rsring.capability.RingInbox inbox, long now) {
+        if (!targetWorld.isBlockLoaded(targetPos)) return;
+        boolean isRSController = isRSController(targetWorld, targetPos);
+        com.rsring.util.TargetInventoryCache targets = com.rsring.util.TargetInventoryCache.getInstance();
+        targets.checkContents(targetWorld, targetPos);
+        int moved = inbox.flush(stack -> {
+            // 命中拒收缓存时没有实际尝试，不计入收件箱的拒收次数
+            if (targets.isRejected(targetWorld, targetPos, stack, now)) return com.rsring.capability.RingInbox.NOT_ATTEMPTED;
+            int inserted = isRSController
+                ? insertIntoRSNetwork(targetWorld, targetPos, stack)
+                : insertIntoChest(targetWorld, targetPos, stack);
+            if (inserted <= 0) targets.markRejected(targetWorld, targetPos, stack, now);
+            return inserted;
+        }, stack -> {
+            net.minecraft.entity.item.EntityItem itemEntity = new net.minecraft.entity.item.EntityItem(
+                player.world,
+                player.posX,
+                player.posY + 0.5,
+                player.posZ,
+                stack
+            );
+            itemEntity.setDefaultPickupDelay();
+            player.world.spawnEntity(itemEntity);
+        });
+        if (moved > 0 || inbox.isEmpty()) {
+            inbox.recordSuccess();
+        } else {
+            inbox.recordFailure(now);
+        }
+    }
 
-            int inserted = 0;
-            boolean isRSController = isRSController(targetWorld, targetPos);
+    /**
+     * 将调度器分配给本戒指的掉落物插入绑定目标。
+     */
+    public void absorbItems(EntityPlayer player, IRsRingCapability capability,
+                            List<net.minecraft.entity.item.EntityItem> items) {
+        if (capability == null || !capability.isBound() || items.isEmpty()) return;
+        com.rsring.capability.RingFilterMatcher filter = capability.getFilterMatcher();
+        com.rsring.capability.RingInbox inbox = capability.getInbox();
+        long now = player.world.getTotalWorldTime();
+
+        net.minecraft.world.World targetWorld = resolveTargetWorld(capability);
+        BlockPos targetPos = capability.getTerminalPos();
+        if (targetPos == null) return;
+        // 收件箱只暂存目标不可用（未加载）时的物品；目标可用时逐类插入，某类被拒收不影响其他类
+        boolean targetAvailable = targetWorld != null && targetWorld.isBlockLoaded(targetPos);
+        if (!targetAvailable && inbox.isFull()) return;
 
-            if (isRSController) {
-                inserted = insertIntoRSNetwork(targetWorld, targetPos, attemptStack);
+        IEnergyStorage energyStorage = capability.getEnergyStorage();
+        int costPerItem = getEnergyCostPerItem();
+        boolean isRSController = targetAvailable && isRSController(targetWorld, targetPos);
+        com.rsring.util.TargetInventoryCache targets = com.rsring.util.TargetInventoryCache.getInstance();
+        if (targetAvailable) {
+            // 目标有物品被取出时清空拒收记录，腾出的空间立即可用
+            targets.checkContents(targetWorld, targetPos);
+        }
+
+        // 按 物品+meta+NBT 合并掉落物，每组只插入一次
+        for (AbsorbGroup group : groupItemEntities(items)) {
+            if (costPerItem > 0 && energyStorage.getEnergyStored() < costPerItem) break;
+            if (filter.shouldFilter(group.prototype)) continue;
+
+            int maxAffordable = costPerItem > 0 ? energyStorage.getEnergyStored() / costPerItem : Integer.MAX_VALUE;
+            int attemptCount = Math.min(group.totalCount, maxAffordable);
+            if (attemptCount <= 0) continue;
+
+            int inserted;
+            if (targetAvailable) {
+                // 目标拒收的物品类型留在地上，既不进入收件箱也不阻塞其他类型
+                if (targets.isRejected(targetWorld, targetPos, group.prototype, now)) continue;
+
+                ItemStack attemptStack = group.prototype.copy();
+                attemptStack.setCount(attemptCount);
+                if (isRSController) {
+                    inserted = insertIntoRSNetwork(targetWorld, targetPos, attemptStack);
+                } else {
+                    // 对于非RS控制器（普通箱子等），使用insertIntoChest方法
+                    inserted = insertIntoChest(targetWorld, targetPos, attemptStack);
+                }
+                if (inserted < attemptCount) {
+                    targets.markRejected(targetWorld, targetPos, group.prototype, now);
+                }
             } else {
-                // 对于非RS控制器（普通箱子等），使用insertIntoChest方法
-                inserted = insertIntoChest(targetWorld, targetPos, attemptStack);
+                if (inbox.isFull()) break;
+                ItemStack overflow = group.prototype.copy();
+                overflow.setCount(attemptCount);
+                inserted = inbox.offer(overflow);
             }
 
             if (inserted > 0) {
                 if (costPerItem > 0) {
-                    int energyToUse = Math.min(energyStorage.getEnergyStored(), inserted * costPerItem);
-                    energyStorage.extractEnergy(energyToUse, false);
-                }
-
-                int remaining = originalCount - inserted;
-                if (remaining <= 0) {
-                    item.setDead();
-                } else {
-                    itemStack.setCount(remaining);
-                    item.setItem(itemStack);
+                    extractEnergyFully(energyStorage, (long) inserted * costPerItem);
                 }
+                group.consume(inserted);
             }
+        }
+    }
 
+    private static World resolveTargetWorld(IRsRingCapability capability) {
+        World targetWorld = capability.getTerminalWorld();
+        if (targetWorld == null) {
+            targetWorld = DimensionManager.getWorld(capability.getTerminalDimension());
         }
+        return targetWorld;
     }
 
+    /**
+     * 将范围内的掉落物按 物品+meta+NBT 分组，保持实体原有顺序。
+     * 按键查找分组，同键但能力不兼容的少见情况再逐个比较。
+     */
+    private static List<AbsorbGroup> groupItemEntities(List<net.minecraft.entity.item.EntityItem> items) {
+        java.util.Map<GroupKey, AbsorbGroup> groups = new java.util.LinkedHashMap<>();
+        List<AbsorbGroup> overflow = null;
+        for (net.minecraft.entity.item.EntityItem item : items) {
+            if (item.isDead) continue;
+            ItemStack itemStack = item.getItem();
+            if (itemStack.isEmpty()) continue;
 
-    private boolean hasAnyFilter(IRsRingCapability capability) {
-        if (hasAnyDefaultFilter(capability.isWhitelistMode())) {
-            return true;
-        }
-        for (int i = 0; i < 9; i++) {
-            String filterName = capability.getFilterSlot(i);
-            if (filterName != null && !filterName.isEmpty()) {
-                return true;
+            GroupKey key = new GroupKey(itemStack);
+            AbsorbGroup target = groups.get(key);
+            if (target == null) {
+                target = new AbsorbGroup(itemStack);
+                groups.put(key, target);
+            } else if (!target.matches(itemStack)) {
+                target = null;
+                if (overflow == null) overflow = new java.util.ArrayList<>();
+                for (AbsorbGroup group : overflow) {
+                    if (group.matches(itemStack)) {
+                        target = group;
+                        break;
+                    }
+                }
+                if (target == null) {
+                    target = new AbsorbGroup(itemStack);
+                    overflow.add(target);
+                }
             }
+            target.add(item);
         }
-        return false;
+        List<AbsorbGroup> result = new java.util.ArrayList<>(groups.values());
+        if (overflow != null) result.addAll(overflow);
+        return result;
     }
 
-    private boolean shouldFilterItem(IRsRingCapability capability, ItemStack itemStack) {
-        boolean isWhitelistMode = capability.isWhitelistMode();
-        String itemName = itemStack.getItem().getRegistryName().toString();
-        boolean isInList = isInDefaultList(itemName, isWhitelistMode);
+    /** 分组键：物品 + meta + NBT，与 {@link AbsorbGroup#matches} 的比较一致（能力兼容性除外） */
+    private static final class GroupKey {
+        private final Item item;
+        private final int meta;
+        private final net.minecraft.nbt.NBTTagCompound tag;
 
-        for (int i = 0; i < 9; i++) {
-            String filterName = capability.getFilterSlot(i);
-            if (filterName != null && !filterName.isEmpty() && filterName.equals(itemName)) {
-                isInList = true;
-                break;
-            }
+        GroupKey(ItemStack stack) {
+            this.item = stack.getItem();
+            this.meta = stack.getItemDamage();
+            this.tag = stack.getTagCompound();
         }
 
-        if (isWhitelistMode) {
-            return !isInList;
-        } else {
-            return isInList;
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (!(o instanceof GroupKey)) return false;
+            GroupKey other = (GroupKey) o;
+            return item == other.item && meta == other.meta && java.util.Objects.equals(tag, other.tag);
         }
-    }
 
-    private boolean hasAnyDefaultFilter(boolean whitelistMode) {
-        String[] items = whitelistMode
-            ? com.rsring.config.RsRingConfig.absorbRing.defaultWhitelistItems
-            : com.rsring.config.RsRingConfig.absorbRing.defaultBlacklistItems;
-        if (items == null) return false;
-        for (String item : items) {
-            if (item != null && !item.trim().isEmpty()) {
-                return true;
-            }
+        @Override
+        public int hashCode() {
+            return System.identityHashCode(item) * 31 + meta;
         }
-        return false;
     }
 
-    private boolean isInDefaultList(String itemName, boolean whitelistMode) {
-        if (itemName == null || itemName.isEmpty()) return false;
-        String[] items = whitelistMode
-            ? com.rsring.config.RsRingConfig.absorbRing.defaultWhitelistItems
-            : com.rsring.config.RsRingConfig.absorbRing.defaultBlacklistItems;
-        if (items == null) return false;
-        for (String item : items) {
-            if (item == null) continue;
-            String formatted = item.trim();
-            if (formatted.isEmpty()) continue;
-            if (!formatted.contains(":")) {
-                formatted = "minecraft:" + formatted;
-            }
-            if (formatted.equals(itemName)) return true;
+    /**
+     * EnergyStorage 单次提取受 maxExtract 限制，合并插入后需循环扣除。
+     */
+    private static void extractEnergyFully(IEnergyStorage energyStorage, long amount) {
+        while (amount > 0) {
+            int extracted = energyStorage.extractEnergy((int) Math.min(amount, Integer.MAX_VALUE), false);
+            if (extracted <= 0) break;
+            amount -= extracted;
         }
-        return false;
     }
 
-    private int insertIntoChest(World world, BlockPos pos, ItemStack stack) {
-        if (world == null || pos == null || stack.isEmpty()) return 0;
-        TileEntity te = world.getTileEntity(pos);
-        if (te == null) return 0;
+    /** 同类掉落物的合并组 */
+    private static class AbsorbGroup {
+        private final ItemStack prototype;
+        private final List<net.minecraft.entity.item.EntityItem> entities = new java.util.ArrayList<>();
+        private int totalCount = 0;
 
-        for (EnumFacing f : EnumFacing.VALUES) {
-            int inserted = tryInsert(te, f, stack);
-            if (inserted > 0) return inserted;
+        AbsorbGroup(ItemStack stack) {
+            this.prototype = stack.copy();
+            this.prototype.setCount(1);
         }
-        return tryInsert(te, null, stack);
-    }
-
-    private int tryInsert(TileEntity te, EnumFacing facing, ItemStack stack) {
-        if (!te.hasCapability(CapabilityItemHandler.ITEM_HANDLER_CAPABILITY, facing)) return 0;
-        IItemHandler h = te.getCapability(CapabilityItemHandler.ITEM_HANDLER_CAPABILITY, facing);
-        if (h == null || h.getSlots() == 0) return 0;
-        int before = stack.getCount();
-        ItemStack remainder = ItemHandlerHelper.insertItemStacked(h, stack.copy(), false);
-        int inserted = before - remainder.getCount();
-        if (inserted > 0) stack.setCount(remainder.getCount());
-        return inserted;
-    }
 
-    private boolean isRSController(World world, BlockPos pos) {
-        if (world == null || pos == null) return false;
-        net.minecraft.util.ResourceLocation regName = world.getBlockState(pos).getBlock().getRegistryName();
-        if (regName == null) return false;
-        String blockName = regName.toString().toLowerCase();
-        return blockName.equals("refinedstorage:controller");
-    }
+        boolean matches(ItemStack stack) {
+            return ItemStack.areItemsEqual(prototype, stack) && ItemStack.areItemStackTagsEqual(prototype, stack);
+        }
 
-    private int insertIntoRSNetwork(World world, BlockPos pos, ItemStack stack) {
-        if (world == null || pos == null || stack.isEmpty()) return 0;
-        try {
-            Class<?> apiClass = Class.forName("com.raoulvdberge.refinedstorage.apiimpl.API");
-            Object api = apiClass.getMethod("instance").invoke(null);
-            Object network = getNetworkFromNodeManager(api, world, pos);
-            if (network == null) {
-                network = getNetworkFromTile(world, pos);
-            }
-            if (network == null) {
-                return 0;
-            }
+        void add(net.minecraft.entity.item.EntityItem entity) {
+            entities.add(entity);
+            int count = entity.getItem().getCount();
+            totalCount = count > Integer.MAX_VALUE - totalCount ? Integer.MAX_VALUE : totalCount + count;
+        }
 
-            // Preferred path for RS 1.6.x: INetwork.insertItem(ItemStack, int/long, Action) -> remainder
-            Class<?> actionClass = Class.forName("com.raoulvdberge.refinedstorage.api.util.Action");
-            Object perform = java.lang.Enum.valueOf((Class<? extends java.lang.Enum>) actionClass, "PERFORM");
-            try {
-                java.lang.reflect.Method insert;
-                Object remainderObj;
-                try {
-                    insert = network.getClass().getMethod("insertItem", ItemStack.class, int.class, actionClass);
-                    remainderObj = insert.invoke(network, stack.copy(), stack.getCount(), perform);
-                } catch (NoSuchMethodException e) {
-                    insert = network.getClass().getMethod("insertItem", ItemStack.class, long.class, actionClass);
-                    remainderObj = insert.invoke(network, stack.copy(), (long) stack.getCount(), perform);
-                }
-                if (remainderObj == null) {
-                    return stack.getCount();
-                }
-                if (remainderObj instanceof ItemStack) {
-                    ItemStack remainder = (ItemStack) remainderObj;
-                    int inserted = Math.max(0, stack.getCount() - remainder.getCount());
-                    return inserted;
+        /** 将插入数量依次分摊回源实体 */
+        void consume(int amount) {
+            for (net.minecraft.entity.item.EntityItem entity : entities) {
+                if (amount <= 0) break;
+                ItemStack stack = entity.getItem();
+                int take = Math.min(amount, stack.getCount());
+                amount -= take;
+                if (take >= stack.getCount()) {
+                    entity.setDead();
+                } else {
+                    stack.shrink(take);
+                    entity.setItem(stack);
                 }
-            } catch (NoSuchMethodException ignored) {
-                return 0;
             }
-        } catch (Throwable t) {
-            return 0;
         }
-        return 0;
     }
 
-    private Object getNetworkFromNodeManager(Object api, World world, BlockPos pos) {
-        try {
-            java.lang.reflect.Method getNodeManager = api.getClass().getMethod("getNetworkNodeManager", World.class);
-            Object nodeManager = getNodeManager.invoke(api, world);
-            if (nodeManager == null) return null;
-
-            java.lang.reflect.Method getNode = nodeManager.getClass().getMethod("getNode", BlockPos.class);
-            Object node = getNode.invoke(nodeManager, pos);
-            if (node == null) return null;
 
-            java.lang.reflect.Method getNetwork = node.getClass().getMethod("getNetwork");
-            return getNetwork.invoke(node);
-        } catch (Throwable t) {
-            return null;
-        }
+    private int insertIntoChest(World world, BlockPos pos, ItemStack stack) {
+        if (world == null || pos == null || stack.isEmpty()) return 0;
+        return com.rsring.util.TargetInventoryCache.getInstance().insertItem(world, pos, stack);
     }
 
-    private Object getNetworkFromTile(World world, BlockPos pos) {
-        try {
-            TileEntity te = world.getTileEntity(pos);
-            if (te == null) return null;
-
-            // Try capability INetworkNodeProxy -> getNode() -> getNetwork()
-            try {
-                Class<?> capClass = Class.forName("com.raoulvdberge.refinedstorage.capability.CapabilityNetworkNodeProxy");
-                java.lang.reflect.Field capField = capClass.getField("NETWORK_NODE_PROXY_CAPABILITY");
-                Object cap = capField.get(null);
-                if (cap != null) {
-                    java.lang.reflect.Method getCap = te.getClass().getMethod("getCapability",
-                        net.minecraftforge.common.capabilities.Capability.class, net.minecraft.util.EnumFacing.class);
-                    Object proxy = getCap.invoke(te, cap, null);
-                    if (proxy != null) {
-                        java.lang.reflect.Method getNode = proxy.getClass().getMethod("getNode");
-                        Object node = getNode.invoke(proxy);
-                        if (node != null) {
-                            java.lang.reflect.Method getNetwork = node.getClass().getMethod("getNetwork");
-                            Object net = getNetwork.invoke(node);
-                            if (net != null) return net;
-                        }
-                    }
-                }
-            } catch (Throwable t) {
-                // ignore
-            }
-
-            // Direct getNetwork() on tile
-            for (java.lang.reflect.Method m : te.getClass().getMethods()) {
-                if ("getNetwork".equals(m.getName()) && m.getParameterTypes().length == 0) {
-                    Object net = m.invoke(te);
-                    if (net != null) return net;
-                }
-            }
+    private boolean isRSController(World world, BlockPos pos) {
+        if (world == null || pos == null) return false;
+        return com.rsring.util.TargetInventoryCache.getInstance().isRSController(world, pos);
+    }
 
-            // getNode() -> getNetwork()
-            for (java.lang.reflect.Method m : te.getClass().getMethods()) {
-                if (!"getNode".equals(m.getName()) || m.getParameterTypes().length != 0) continue;
-                Object node = m.invoke(te);
-                if (node == null) continue;
-                for (java.lang.reflect.Method nm : node.getClass().getMethods()) {
-                    if ("getNetwork".equals(nm.getName()) && nm.getParameterTypes().length == 0) {
-                        Object net = nm.invoke(node);
-                        if (net != null) return net;
-                    }
-                }
-            }
-        } catch (Throwable t) {
-            // ignore
-        }
-        return null;
+    private int insertIntoRSNetwork(World world, BlockPos pos, ItemStack stack) {
+        if (world == null || pos == null || stack.isEmpty()) return 0;
+        return com.rsring.util.RefinedStorageBridge.getInstance().insertItem(world, pos, stack);
     }
 
     @SideOnly(Side.CLIENT)
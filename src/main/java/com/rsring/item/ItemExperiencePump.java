@@ -2,6 +2,7 @@ package com.rsring.item;
 
 import com.rsring.capability.IExperiencePumpCapability;
 import com.rsring.capability.ExperiencePumpCapability;
+import com.rsring.experience.PlayerXpLedger;
 import net.minecraft.client.util.ITooltipFlag;
 import net.minecraft.creativetab.CreativeTabs;
 import net.minecraft.entity.EntityLivingBase;
@@ -40,6 +41,10 @@ public class ItemExperiencePump extends Item implements IBauble {
     // NBT keys
     private static final String CAPACITY_LEVELS_KEY = "capacityLevels";
     private static final String XP_KEY = "xp";
+    /** 储罐物品上累积的溢出经验（尚未转换成经验瓶的部分） */
+    private static final String OVERFLOW_XP_KEY = "overflowXp";
+    /** 储罐掉落的溢出经验瓶实体标记，抽取经验瓶时跳过 */
+    private static final String OVERFLOW_ENTITY_KEY = "rsringOverflow";
 
     private static final int FILL_LEVEL_EMPTY = 0;
     private static final int FILL_LEVEL_QUARTER = 1;
@@ -55,10 +60,10 @@ public class ItemExperiencePump extends Item implements IBauble {
     }
 
     
-    public static int getXpStoredFromNBT(ItemStack stack) {
+    public static long getXpStoredFromNBT(ItemStack stack) {
         if (stack == null) return 0;
         net.minecraft.nbt.NBTTagCompound data = getDataFromNBT(stack);
-        return data != null ? data.getInteger(XP_KEY) : 0;
+        return data != null ? ExperiencePumpCapability.readXp(data, XP_KEY) : 0;
     }
 
     
@@ -69,9 +74,9 @@ public class ItemExperiencePump extends Item implements IBauble {
     }
 
     
-    public static int getMaxXpFromNBT(ItemStack stack) {
+    public static long getMaxXpFromNBT(ItemStack stack) {
         if (stack == null) {
-            return (int)(IExperiencePumpCapability.BASE_XP_PER_LEVEL * Math.pow(2, DEFAULT_RETAIN_LEVEL - 1));
+            return (long) IExperiencePumpCapability.BASE_XP_PER_LEVEL << (DEFAULT_RETAIN_LEVEL - 1);
         }
         
         if (stack.getItem() instanceof ItemExperienceTank100) {
@@ -84,17 +89,9 @@ public class ItemExperiencePump extends Item implements IBauble {
             return 17677220;
         }
         
-        int capacityLevels = getCapacityLevelsFromNBT(stack);
-
-        try {
-            long maxCapacity = (long) IExperiencePumpCapability.BASE_XP_PER_LEVEL * (1L << (capacityLevels - 1));
-            if (maxCapacity > Integer.MAX_VALUE) {
-                return Integer.MAX_VALUE;
-            }
-            return (int) maxCapacity;
-        } catch (Exception e) {
-            return Integer.MAX_VALUE;
-        }
+        // 等级上限为 25，long 不会溢出
+        int capacityLevels = Math.max(1, Math.min(getCapacityLevelsFromNBT(stack), 25));
+        return (long) IExperiencePumpCapability.BASE_XP_PER_LEVEL << (capacityLevels - 1);
     }
 
     
@@ -136,9 +133,9 @@ public class ItemExperiencePump extends Item implements IBauble {
             return;
         }
 
-        int xp = data.getInteger(XP_KEY);
+        long xp = ExperiencePumpCapability.readXp(data, XP_KEY);
         int capacityLevels = data.hasKey(CAPACITY_LEVELS_KEY) ? data.getInteger(CAPACITY_LEVELS_KEY) : DEFAULT_RETAIN_LEVEL;
-        int max = (int)(IExperiencePumpCapability.BASE_XP_PER_LEVEL * Math.pow(2, capacityLevels - 1));
+        long max = getMaxXpFromNBT(stack);
 
         tooltip.add(TextFormatting.GRAY + "等级: " + TextFormatting.AQUA + capacityLevels);
         tooltip.add(TextFormatting.GRAY + "经验: " + TextFormatting.GREEN + xp + TextFormatting.GRAY
@@ -185,7 +182,7 @@ public class ItemExperiencePump extends Item implements IBauble {
         if (data == null) {
             return false;
         }
-        int maxCapacity = getMaxXpFromNBT(stack);
+        long maxCapacity = getMaxXpFromNBT(stack);
         return maxCapacity > 0;
     }
 
@@ -198,11 +195,11 @@ public class ItemExperiencePump extends Item implements IBauble {
         if (data == null) {
             return 1.0;
         }
-        int maxCapacity = getMaxXpFromNBT(stack);
+        long maxCapacity = getMaxXpFromNBT(stack);
         if (maxCapacity <= 0) {
             return 1.0;
         }
-        int stored = data.getInteger(XP_KEY);
+        long stored = ExperiencePumpCapability.readXp(data, XP_KEY);
         return 1.0 - (double) stored / (double) maxCapacity;
     }
 
@@ -221,9 +218,9 @@ public class ItemExperiencePump extends Item implements IBauble {
     public ActionResult<ItemStack> onItemRightClick(World world, EntityPlayer player, EnumHand hand) {
         ItemStack stack = player.getHeldItem(hand);
         if (!world.isRemote) {
-            int xpStored = getXpStoredFromNBT(stack);
+            long xpStored = getXpStoredFromNBT(stack);
             int capacityLevels = getCapacityLevelsFromNBT(stack);
-            int maxXp = getMaxXpFromNBT(stack);
+            long maxXp = getMaxXpFromNBT(stack);
 
             String message = TextFormatting.AQUA + "等级 " + capacityLevels +
                            TextFormatting.GRAY + " - " +
@@ -248,7 +245,7 @@ public class ItemExperiencePump extends Item implements IBauble {
             return 0;
         }
 
-        int xpToStore = com.rsring.util.XpHelper.extractExperienceLevels(player, levelsToStore);
+        int xpToStore = PlayerXpLedger.getInstance().removeLevels(player, levelsToStore);
         if (xpToStore <= 0) {
             return 0;
         }
@@ -272,7 +269,8 @@ public class ItemExperiencePump extends Item implements IBauble {
             return 0;
         }
 
-        int currentLevel = player.experienceLevel;
+        PlayerXpLedger ledger = PlayerXpLedger.getInstance();
+        int currentLevel = ledger.getLevel(player);
         int targetLevel = currentLevel + levelsToExtract;
         int xpNeeded = com.rsring.util.XpHelper.getExperienceBetweenLevels(currentLevel, targetLevel);
 
@@ -282,7 +280,7 @@ public class ItemExperiencePump extends Item implements IBauble {
 
         int actualExtracted = cap.takeXp(xpNeeded);
         if (actualExtracted > 0) {
-            com.rsring.util.XpHelper.addExperienceToPlayer(player, actualExtracted);
+            ledger.add(player, actualExtracted);
             syncCapabilityToStack(stack, cap);
         }
 
@@ -296,14 +294,15 @@ public class ItemExperiencePump extends Item implements IBauble {
             return 0;
         }
 
-        int playerTotalXP = com.rsring.util.XpHelper.getPlayerTotalExperience(player);
+        PlayerXpLedger ledger = PlayerXpLedger.getInstance();
+        int playerTotalXP = ledger.getTotal(player);
         if (playerTotalXP <= 0) {
             return 0;
         }
 
         int actualStored = cap.addXp(playerTotalXP);
         if (actualStored > 0) {
-            com.rsring.util.XpHelper.removeExperienceFromPlayer(player, actualStored);
+            ledger.remove(player, actualStored);
             syncCapabilityToStack(stack, cap);
         }
 
@@ -317,14 +316,14 @@ public class ItemExperiencePump extends Item implements IBauble {
             return 0;
         }
 
-        int storedXP = cap.getXpStored();
+        int storedXP = cap.getXpAvailable();
         if (storedXP <= 0) {
             return 0;
         }
 
         int actualExtracted = cap.takeXp(storedXP);
         if (actualExtracted > 0) {
-            com.rsring.util.XpHelper.addExperienceToPlayer(player, actualExtracted);
+            PlayerXpLedger.getInstance().add(player, actualExtracted);
             syncCapabilityToStack(stack, cap);
         }
 
@@ -389,27 +388,32 @@ public class ItemExperiencePump extends Item implements IBauble {
             return;
         }
 
-        int extractedXp = 0;
-        if (player.ticksExisted % com.rsring.config.ExperienceTankConfig.tank.extractionInterval == 0) {
-            extractedXp = extractXpFromSurroundings(player, stack, cap);
-        }
+        // 周期性工作按玩家相位错开
+        com.rsring.service.TickBudgetScheduler scheduler = com.rsring.service.TickBudgetScheduler.getInstance();
 
-        if (extractedXp > 0) {
-            storeExtractedXp(player, stack, cap, extractedXp);
+        // 经验球由全服分配器统一分配，本 tick 结束时回调 extractScheduledXp
+        if (scheduler.isDue(player, com.rsring.config.ExperienceTankConfig.tank.extractionInterval)) {
+            com.rsring.service.XpOrbScheduler.getInstance().schedule(player, this, stack, cap);
         }
 
         int pumpInterval = Math.max(1, com.rsring.config.ExperienceTankConfig.tank.pumpingInterval);
         if (com.rsring.config.ExperienceTankConfig.tank.enableAutoPumping &&
-            cap.getMode() != IExperiencePumpCapability.MODE_OFF && player.ticksExisted % pumpInterval == 0) {
+            cap.getMode() != IExperiencePumpCapability.MODE_OFF && scheduler.isDue(player, pumpInterval)) {
             com.rsring.experience.ExperiencePumpController controller = com.rsring.experience.ExperiencePumpController.getInstance();
             if (!controller.isTankManagedByController(stack)) {
                 pumpExperienceBetweenPlayerAndTank(player, stack, cap);
             }
         }
 
+        if (scheduler.isDue(player, com.rsring.config.ExperienceTankConfig.tank.overflowFlushInterval)) {
+            flushOverflowBottles(player, stack);
+        }
+
         if (com.rsring.config.ExperienceTankConfig.tank.mendingOn && cap.isUseForMending() &&
-            cap.getXpStored() > 0 && player.ticksExisted % com.rsring.config.ExperienceTankConfig.tank.mendingInterval == 0) {
-            tryRepairMending(player, stack, cap);
+            cap.getXpStored() > 0 && scheduler.isDue(player, com.rsring.config.ExperienceTankConfig.tank.mendingInterval)) {
+            // 修补可延后，预算用完时留到之后的 tick；执行时重新确认储罐仍在玩家身上
+            scheduler.defer(com.rsring.service.TickBudgetScheduler.Subsystem.MENDING, player,
+                () -> runDeferredMending(player, stack));
         }
 
         syncCapabilityToStack(stack, cap);
@@ -419,33 +423,67 @@ public class ItemExperiencePump extends Item implements IBauble {
     private void storeExtractedXp(EntityPlayer player, ItemStack stack, IExperiencePumpCapability cap, int xpAmount) {
         if (xpAmount <= 0) return;
 
-        int currentXp = cap.getXpStored();
-        int maxXp = cap.getMaxXp();
-        int newXp = currentXp + xpAmount;
+        long currentXp = cap.getXpStored();
+        long maxXp = cap.getMaxXp();
+        long newXp = currentXp + xpAmount;
 
         if (newXp > maxXp) {
-            int overflowXp = newXp - maxXp;
-            int xpPerBottle = getXpPerBottle();
-            int overflowBottles = overflowXp / xpPerBottle;
+            // 溢出部分先累积在储罐上，按 overflowFlushInterval 统一转换成经验瓶
+            if (com.rsring.config.ExperienceTankConfig.tank.enableOverflowBottles) {
+                addOverflowXp(stack, newXp - maxXp);
+            }
+            newXp = maxXp;
+        }
+
+        cap.setXpStored(newXp);
+        syncCapabilityToStack(stack, cap);
+    }
+
+    private static void addOverflowXp(ItemStack stack, long amount) {
+        if (!stack.hasTagCompound()) stack.setTagCompound(new net.minecraft.nbt.NBTTagCompound());
+        net.minecraft.nbt.NBTTagCompound tag = stack.getTagCompound();
+        ExperiencePumpCapability.writeXp(tag, OVERFLOW_XP_KEY, ExperiencePumpCapability.readXp(tag, OVERFLOW_XP_KEY) + amount);
+    }
+
+    /**
+     * 将累积的溢出经验转换成经验瓶：先放入物品栏中第一个能容纳经验瓶的槽位，
+     * 放不下的部分合并成一个掉落物，并打上标记避免被储罐再次吸收。不足一瓶的余量继续保留。
+     */
+    private void flushOverflowBottles(EntityPlayer player, ItemStack stack) {
+        net.minecraft.nbt.NBTTagCompound tag = stack.getTagCompound();
+        if (tag == null || !tag.hasKey(OVERFLOW_XP_KEY)) return;
+
+        long pending = ExperiencePumpCapability.readXp(tag, OVERFLOW_XP_KEY);
+        int xpPerBottle = getXpPerBottle();
+        long bottles = pending / xpPerBottle;
+        if (bottles <= 0) return;
 
-            if (overflowBottles > 0 && com.rsring.config.ExperienceTankConfig.tank.enableOverflowBottles) {
-                ItemStack overflowStack = new ItemStack(Items.EXPERIENCE_BOTTLE, overflowBottles);
+        long remainder = pending - bottles * xpPerBottle;
+        if (remainder > 0) {
+            ExperiencePumpCapability.writeXp(tag, OVERFLOW_XP_KEY, remainder);
+        } else {
+            tag.removeTag(OVERFLOW_XP_KEY);
+        }
+
+        int maxStackSize = Items.EXPERIENCE_BOTTLE.getItemStackLimit();
+        while (bottles > 0) {
+            int count = (int) Math.min(bottles, maxStackSize);
+            bottles -= count;
+            ItemStack bottleStack = new ItemStack(Items.EXPERIENCE_BOTTLE, count);
+            player.inventory.addItemStackToInventory(bottleStack);
+            if (!bottleStack.isEmpty()) {
                 net.minecraft.entity.item.EntityItem itemEntity = new net.minecraft.entity.item.EntityItem(
                     player.world,
                     player.posX,
                     player.posY + 0.5,
                     player.posZ,
-                    overflowStack
+                    bottleStack
                 );
+                itemEntity.getEntityData().setBoolean(OVERFLOW_ENTITY_KEY, true);
+                itemEntity.setDefaultPickupDelay();
                 player.world.spawnEntity(itemEntity);
-                newXp = maxXp;
-            } else {
-                newXp = maxXp;
             }
         }
-
-        cap.setXpStored(newXp);
-        syncCapabilityToStack(stack, cap);
     }
 
     
@@ -462,7 +500,7 @@ public class ItemExperiencePump extends Item implements IBauble {
         if (cap.getMode() == IExperiencePumpCapability.MODE_PUMP_FROM_PLAYER) {
             int excess = playerTotal - targetXp;
             if (excess > 0) {
-                int canStore = cap.getMaxXp() - cap.getXpStored();
+                int canStore = cap.getFreeSpace();
                 int take = Math.min(excess, canStore);
                 if (take > 0) {
                     addPlayerXp(player, -take);
@@ -504,45 +542,87 @@ public class ItemExperiencePump extends Item implements IBauble {
     }
 
     
-    private int getMaxStorage(IExperiencePumpCapability cap) {
+    private long getMaxStorage(IExperiencePumpCapability cap) {
         return cap.getMaxXp();
     }
 
     
-    private int extractXpFromSurroundings(EntityPlayer player, ItemStack stack, IExperiencePumpCapability cap) {
+    /**
+     * 单次抽取周期内的经验上限（抽取速度 × 抽取间隔）
+     */
+    public static int getExtractionBudget() {
+        int interval = Math.max(1, com.rsring.config.ExperienceTankConfig.tank.extractionInterval);
+        return Math.max(0, com.rsring.config.ExperienceTankConfig.tank.xpExtractionRate) * interval;
+    }
+
+    /**
+     * 由 {@link com.rsring.service.XpOrbScheduler} 在服务器 tick 结束时调用：
+     * 吸收分配给该储罐的经验球，再用剩余额度处理范围内的经验瓶。
+     */
+    public void extractScheduledXp(EntityPlayer player, ItemStack stack, IExperiencePumpCapability cap, List<EntityXPOrb> orbs) {
+        int extractedXp = extractXpFromSurroundings(player, cap, orbs);
+        if (extractedXp > 0) {
+            storeExtractedXp(player, stack, cap, extractedXp);
+        }
+    }
+
+    private int extractXpFromSurroundings(EntityPlayer player, IExperiencePumpCapability cap, List<EntityXPOrb> orbs) {
         if (cap.getXpStored() >= cap.getMaxXp()) {
             return 0;
         }
 
-        int baseRate = getExtractionRate();
-        int interval = Math.max(1, com.rsring.config.ExperienceTankConfig.tank.extractionInterval);
-        int maxExtract = baseRate * interval;
-        int extractedTotal = 0;
-        double range = com.rsring.config.ExperienceTankConfig.tank.xpExtractionRange;
+        int maxExtract = getExtractionBudget();
+        int extractedTotal = extractXpFromOrbs(orbs, maxExtract, cap);
 
-        net.minecraft.util.math.AxisAlignedBB extractArea = player.getEntityBoundingBox().grow(range);
+        if (extractedTotal < maxExtract && com.rsring.config.ExperienceTankConfig.tank.extractXpBottles) {
+            double range = com.rsring.config.ExperienceTankConfig.tank.xpExtractionRange;
+            net.minecraft.util.math.AxisAlignedBB extractArea = player.getEntityBoundingBox().grow(range);
+            BottleSources sources = BottleSources.collect(player.world, extractArea);
 
-        extractedTotal = extractXpFromOrbs(player, extractArea, maxExtract, cap);
+            extractedTotal += extractXpFromBottleItems(sources.bottleItems, maxExtract, extractedTotal, cap);
 
-        if (extractedTotal < maxExtract && com.rsring.config.ExperienceTankConfig.tank.extractXpBottles) {
-            extractedTotal += extractXpFromBottleItems(player, extractArea, maxExtract, extractedTotal, cap);
+            if (extractedTotal < maxExtract) {
+                extractedTotal += extractXpFromThrownBottles(sources.thrownBottles, maxExtract, extractedTotal, cap);
+            }
         }
 
-        if (extractedTotal < maxExtract && com.rsring.config.ExperienceTankConfig.tank.extractXpBottles) {
-            extractedTotal += extractXpFromThrownBottles(player, extractArea, maxExtract, extractedTotal, cap);
+        return extractedTotal;
+    }
+
+    /**
+     * 范围内的经验瓶：只遍历一次实体列表，按类型分发到经验瓶掉落物和投掷中的经验瓶。
+     */
+    private static final class BottleSources {
+        private final List<net.minecraft.entity.item.EntityItem> bottleItems = new java.util.ArrayList<>();
+        private final List<EntityExpBottle> thrownBottles = new java.util.ArrayList<>();
+
+        static BottleSources collect(World world, net.minecraft.util.math.AxisAlignedBB area) {
+            BottleSources sources = new BottleSources();
+            for (net.minecraft.entity.Entity entity : world.getEntitiesWithinAABB(
+                    net.minecraft.entity.Entity.class, area, BottleSources::isBottleSource)) {
+                if (entity instanceof net.minecraft.entity.item.EntityItem) {
+                    sources.bottleItems.add((net.minecraft.entity.item.EntityItem) entity);
+                } else {
+                    sources.thrownBottles.add((EntityExpBottle) entity);
+                }
+            }
+            return sources;
         }
 
-        return extractedTotal;
+        private static boolean isBottleSource(net.minecraft.entity.Entity entity) {
+            if (entity instanceof EntityExpBottle) {
+                return true;
+            }
+            return entity instanceof net.minecraft.entity.item.EntityItem
+                && ((net.minecraft.entity.item.EntityItem) entity).getItem().getItem() == Items.EXPERIENCE_BOTTLE
+                && !entity.getEntityData().getBoolean(OVERFLOW_ENTITY_KEY);
+        }
     }
 
     
-    private int extractXpFromOrbs(EntityPlayer player, net.minecraft.util.math.AxisAlignedBB extractArea,
-                                  int maxExtract, IExperiencePumpCapability cap) {
+    private int extractXpFromOrbs(List<EntityXPOrb> xpOrbs, int maxExtract, IExperiencePumpCapability cap) {
         int extractedTotal = 0;
 
-        java.util.List<net.minecraft.entity.item.EntityXPOrb> xpOrbs =
-            player.world.getEntitiesWithinAABB(net.minecraft.entity.item.EntityXPOrb.class, extractArea);
-
         for (net.minecraft.entity.item.EntityXPOrb orb : xpOrbs) {
             if (extractedTotal >= maxExtract) {
                 break;
@@ -551,8 +631,7 @@ public class ItemExperiencePump extends Item implements IBauble {
                 continue;
             }
 
-            int currentStored = cap.getXpStored();
-            int maxCanStore = cap.getMaxXp() - currentStored;
+            int maxCanStore = cap.getFreeSpace();
             int extractAmount = Math.min(maxExtract - extractedTotal, Math.min(orb.xpValue, maxCanStore));
 
             if (extractAmount > 0) {
@@ -568,13 +647,11 @@ public class ItemExperiencePump extends Item implements IBauble {
     }
 
     
-    private int extractXpFromBottleItems(EntityPlayer player, net.minecraft.util.math.AxisAlignedBB extractArea,
+    private int extractXpFromBottleItems(List<net.minecraft.entity.item.EntityItem> xpBottleItems,
                                          int maxExtract, int currentExtracted, IExperiencePumpCapability cap) {
         int extractedTotal = currentExtracted;
         int xpPerBottle = getXpPerBottle();
 
-        java.util.List<net.minecraft.entity.item.EntityItem> xpBottleItems = player.world.getEntitiesWithinAABB(net.minecraft.entity.item.EntityItem.class, extractArea);
-
         for (net.minecraft.entity.item.EntityItem itemEntity : xpBottleItems) {
             if (extractedTotal >= maxExtract) {
                 break;
@@ -586,8 +663,7 @@ public class ItemExperiencePump extends Item implements IBauble {
             if (bottleStack.isEmpty() || bottleStack.getItem() != net.minecraft.init.Items.EXPERIENCE_BOTTLE) continue;
 
             int bottleCount = bottleStack.getCount();
-            int currentStored = cap.getXpStored();
-            int maxCanStore = cap.getMaxXp() - currentStored;
+            int maxCanStore = cap.getFreeSpace();
 
             if (maxCanStore <= 0) {
                 break;
@@ -623,18 +699,16 @@ public class ItemExperiencePump extends Item implements IBauble {
     }
 
     
-    private int extractXpFromThrownBottles(EntityPlayer player, net.minecraft.util.math.AxisAlignedBB extractArea,
+    private int extractXpFromThrownBottles(List<EntityExpBottle> thrownBottles,
                                            int maxExtract, int currentExtracted, IExperiencePumpCapability cap) {
         int extractedTotal = currentExtracted;
         int xpPerBottle = getXpPerBottle();
 
-        java.util.List<EntityExpBottle> thrownBottles = player.world.getEntitiesWithinAABB(EntityExpBottle.class, extractArea);
         for (EntityExpBottle thrown : thrownBottles) {
             if (extractedTotal >= maxExtract) break;
             if (thrown.isDead) continue;
 
-            int currentStored = cap.getXpStored();
-            int maxCanStore = cap.getMaxXp() - currentStored;
+            int maxCanStore = cap.getFreeSpace();
             int canTakeForThis = Math.min(xpPerBottle, Math.min(maxExtract - extractedTotal, maxCanStore));
             if (canTakeForThis > 0) {
                 extractedTotal += canTakeForThis;
@@ -647,30 +721,43 @@ public class ItemExperiencePump extends Item implements IBauble {
 
 
     
+    /**
+     * 延后的经验修补最多在登记后 100 tick 才执行，期间储罐可能已被移走、被容器复制或丢出。
+     * 执行时通过储罐索引确认同一个物品实例仍在玩家身上，并重新读取能力，否则跳过。
+     */
+    private void runDeferredMending(EntityPlayer player, ItemStack pump) {
+        if (player.isDead || !com.rsring.config.ExperienceTankConfig.tank.mendingOn) return;
+
+        boolean held = false;
+        for (ItemStack tank : com.rsring.experience.PlayerTankIndex.getInstance().getScan(player).getAllTanks()) {
+            if (tank == pump) {
+                held = true;
+                break;
+            }
+        }
+        if (!held) return;
+
+        IExperiencePumpCapability cap = pump.getCapability(ExperiencePumpCapability.EXPERIENCE_PUMP_CAPABILITY, null);
+        if (cap == null || !cap.isUseForMending() || cap.getXpStored() <= 0 || !isUpgradeActive(pump, cap)) return;
+        tryRepairMending(player, pump, cap);
+    }
+
     private void tryRepairMending(EntityPlayer player, ItemStack pump, IExperiencePumpCapability cap) {
         if (player == null || pump == null || cap == null || !com.rsring.config.ExperienceTankConfig.tank.mendPlayerItems) return;
 
-        int availableXp = cap.getXpStored();
+        int availableXp = cap.getXpAvailable();
         if (availableXp <= 0) return;
 
         if (pump.isItemDamaged()) {
             availableXp = mendSingleItem(pump, availableXp, cap);
         }
 
-        if (availableXp > 0 && player.inventory != null && player.inventory.mainInventory != null) {
-            for (ItemStack stack : player.inventory.mainInventory) {
-                if (stack == null || availableXp <= 0) break;
-                if (stack.isItemDamaged() && net.minecraft.enchantment.EnchantmentHelper.getEnchantmentLevel(net.minecraft.init.Enchantments.MENDING, stack) > 0) {
-                    availableXp = mendSingleItem(stack, availableXp, cap);
-                }
-            }
-        }
-
+        // 只遍历索引中带经验修补的物品（物品栏、副手、护甲与 Baubles）
         if (availableXp > 0) {
-            ItemStack off = player.getHeldItemOffhand();
-            if (off != null && !off.isEmpty() && off.isItemDamaged() &&
-                net.minecraft.enchantment.EnchantmentHelper.getEnchantmentLevel(net.minecraft.init.Enchantments.MENDING, off) > 0) {
-                mendSingleItem(off, availableXp, cap);
+            for (ItemStack stack : com.rsring.experience.MendingCandidateIndex.getInstance().getDamagedCandidates(player)) {
+                if (availableXp <= 0) break;
+                if (stack == pump) continue;
+                availableXp = mendSingleItem(stack, availableXp, cap);
             }
         }
 
@@ -711,7 +798,7 @@ public class ItemExperiencePump extends Item implements IBauble {
     }
 
     private static int getPlayerTotalXp(EntityPlayer player) {
-        return com.rsring.util.XpHelper.getPlayerTotalExperience(player);
+        return PlayerXpLedger.getInstance().getTotal(player);
     }
 
     private static int getTotalXpForLevel(int level) {
@@ -723,13 +810,13 @@ public class ItemExperiencePump extends Item implements IBauble {
     private static void addPlayerXp(EntityPlayer player, int amount) {
         if (amount == 0) return;
         if (amount > 0) {
-            com.rsring.util.XpHelper.addExperienceToPlayer(player, amount);
+            PlayerXpLedger.getInstance().add(player, amount);
             return;
         }
 
-        // amount < 0 : remove XP safely using XpHelper
+        // amount < 0 : remove XP through the ledger, clamped to the player's total
         int take = -amount;
-        com.rsring.util.XpHelper.removeExperienceFromPlayer(player, take);
+        PlayerXpLedger.getInstance().remove(player, take);
     }
 
     
@@ -743,12 +830,12 @@ public class ItemExperiencePump extends Item implements IBauble {
             return FILL_LEVEL_EMPTY;
         }
 
-        int stored = 0;
-        int max = 0;
+        long stored = 0;
+        long max = 0;
 
         net.minecraft.nbt.NBTTagCompound data = getDataFromNBT(stack);
         if (data != null) {
-            stored = data.getInteger(XP_KEY);
+            stored = ExperiencePumpCapability.readXp(data, XP_KEY);
             max = getMaxXpFromNBT(stack);
         } else {
             IExperiencePumpCapability cap = null;
@@ -771,7 +858,7 @@ public class ItemExperiencePump extends Item implements IBauble {
         if (stored <= 0 || max <= 0) return FILL_LEVEL_EMPTY;
         if (stored >= max) return FILL_LEVEL_FULL;
 
-        long fillRatio = (long) stored * 10000 / max;
+        long fillRatio = stored * 10000 / max;
         
         if (fillRatio < 3000) return FILL_LEVEL_QUARTER;
         if (fillRatio < 6000) return FILL_LEVEL_HALF;
@@ -27,6 +27,8 @@ import java.util.List;
 public class ItemExperiencePumpController extends Item {
 
     public static final String CONTROLLER_TAG = "ControllerData";
+    private static final String SETTINGS_ID_KEY = "settingsId";
+    private static final String SETTINGS_VERSION_KEY = "settingsVersion";
 
     public ItemExperiencePumpController() {
         super();
@@ -82,14 +84,59 @@ public class ItemExperiencePumpController extends Item {
             stack.setTagCompound(new NBTTagCompound());
         }
 
+        // 整体替换配置数据，旧的无关键值（如 extractLevels、storeLevels）随之清除，只沿用版本号
         NBTTagCompound data = new NBTTagCompound();
         data.setInteger("mode", mode);
         data.setInteger("retainLevel", retainLevel);
         data.setBoolean("mending", useForMending);
+        // 设置变化时递增版本，储罐据此判断是否需要重新应用；
+        // 标识同时重新生成，复制出的控制器各自修改后不会出现相同的 标识+版本
+        data.setInteger(SETTINGS_ID_KEY, newSettingsId());
+        data.setInteger(SETTINGS_VERSION_KEY, getSettingsVersion(getControllerData(stack)) + 1);
 
         stack.getTagCompound().setTag(CONTROLLER_TAG, data);
     }
 
+    /**
+     * 确保控制器带有设置标识与版本，缺失时按当前（默认）配置补齐
+     * @param stack 控制器物品栈
+     * @return 控制器的配置数据
+     */
+    public static NBTTagCompound ensureSettingsStamp(ItemStack stack) {
+        NBTTagCompound data = getControllerData(stack);
+        if (data != null && data.hasKey(SETTINGS_ID_KEY)) {
+            return data;
+        }
+        setControllerData(stack, getMode(stack), getRetainLevel(stack), isUseForMending(stack));
+        return getControllerData(stack);
+    }
+
+    /**
+     * 获取控制器的设置标识，用于区分不同的控制器
+     * @param data 控制器配置数据
+     * @return 设置标识
+     */
+    public static int getSettingsId(NBTTagCompound data) {
+        return data != null ? data.getInteger(SETTINGS_ID_KEY) : 0;
+    }
+
+    /**
+     * 获取控制器的设置版本，每次修改模式、保留等级或修补开关时递增
+     * @param data 控制器配置数据
+     * @return 设置版本
+     */
+    public static int getSettingsVersion(NBTTagCompound data) {
+        return data != null ? data.getInteger(SETTINGS_VERSION_KEY) : 0;
+    }
+
+    private static int newSettingsId() {
+        int id;
+        do {
+            id = java.util.concurrent.ThreadLocalRandom.current().nextInt();
+        } while (id == 0);
+        return id;
+    }
+
     /**
      * 设置控制器的存取等级
      * @param stack 控制器物品栈
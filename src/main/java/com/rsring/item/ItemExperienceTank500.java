@@ -88,7 +88,7 @@ public class ItemExperienceTank500 extends ItemExperiencePump implements IBauble
         // 服务器端：显示储罐容量信息到聊天栏
         if (!world.isRemote) {
             // 从NBT读取数据（确保准确性）
-            int xpStored = getXpStoredFromNBT(stack);
+            long xpStored = getXpStoredFromNBT(stack);
             int maxXp = DEFAULT_CAPACITY;
 
             // 构造消息：500级储罐 - Y / Z mb
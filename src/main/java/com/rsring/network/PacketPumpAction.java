@@ -2,6 +2,7 @@ package com.rsring.network;
 
 import com.rsring.capability.IExperiencePumpCapability;
 import com.rsring.capability.ExperiencePumpCapability;
+import com.rsring.experience.PlayerXpLedger;
 import com.rsring.item.ItemExperiencePump;
 import com.rsring.util.BaublesHelper;
 import com.rsring.network.PacketSyncTankSlots;
@@ -88,20 +89,20 @@ public class PacketPumpAction implements IMessage {
                 java.util.List<ItemStack> prioritized = new java.util.ArrayList<>();
                 if (msg.action == ACTION_STORE_ONE || msg.action == ACTION_STORE_ALL) {
                     for (ItemStack t : tankStacks) {
-                        int stored = ItemExperiencePump.getXpStoredFromNBT(t);
+                        long stored = ItemExperiencePump.getXpStoredFromNBT(t);
                         if (stored == 0) prioritized.add(t);
                     }
                     for (ItemStack t : tankStacks) {
-                        int stored = ItemExperiencePump.getXpStoredFromNBT(t);
+                        long stored = ItemExperiencePump.getXpStoredFromNBT(t);
                         if (stored > 0) prioritized.add(t);
                     }
                 } else if (msg.action == ACTION_TAKE_ONE || msg.action == ACTION_TAKE_ALL) {
                     for (ItemStack t : tankStacks) {
-                        int stored = ItemExperiencePump.getXpStoredFromNBT(t);
+                        long stored = ItemExperiencePump.getXpStoredFromNBT(t);
                         if (stored > 0) prioritized.add(t);
                     }
                     for (ItemStack t : tankStacks) {
-                        int stored = ItemExperiencePump.getXpStoredFromNBT(t);
+                        long stored = ItemExperiencePump.getXpStoredFromNBT(t);
                         if (stored == 0) prioritized.add(t);
                     }
                 } else {
@@ -194,7 +195,8 @@ public class PacketPumpAction implements IMessage {
                         int levelsToTake = msg.value > 0 ? msg.value : 1;
                         if (levelsToTake <= 0) break;
 
-                        int currentLevel = player.experienceLevel;
+                        PlayerXpLedger ledger = PlayerXpLedger.getInstance();
+                        int currentLevel = ledger.getLevel(player);
                         int targetLevel = currentLevel + levelsToTake;
                         int totalXPNeeded = com.rsring.util.XpHelper.getExperienceBetweenLevels(currentLevel, targetLevel);
                         if (totalXPNeeded <= 0) break;
@@ -207,7 +209,7 @@ public class PacketPumpAction implements IMessage {
                             IExperiencePumpCapability cap = tankStack.getCapability(ExperiencePumpCapability.EXPERIENCE_PUMP_CAPABILITY, null);
                             if (cap == null) continue;
 
-                            int available = cap.getXpStored();
+                            int available = cap.getXpAvailable();
                             if (available <= 0) continue;
 
                             int take = Math.min(available, totalXPNeeded);
@@ -215,7 +217,7 @@ public class PacketPumpAction implements IMessage {
                             if (extracted > 0) {
                                 totalExtracted += extracted;
                                 totalXPNeeded -= extracted;
-                                com.rsring.util.XpHelper.addExperienceToPlayer(player, extracted);
+                                ledger.add(player, extracted);
                                 ItemExperiencePump.syncCapabilityToStack(tankStack, cap);
                                 syncTankBack(tankStack, tankLocations.get(tankStack), player);
                             }
@@ -242,12 +244,13 @@ public class PacketPumpAction implements IMessage {
                         int levelsToStore = msg.value > 0 ? msg.value : 1;
                         if (levelsToStore <= 0) break;
 
-                        int currentLevel = player.experienceLevel;
+                        PlayerXpLedger ledger = PlayerXpLedger.getInstance();
+                        int currentLevel = ledger.getLevel(player);
                         int targetLevel = Math.max(0, currentLevel - levelsToStore);
                         int totalXPToStore = com.rsring.util.XpHelper.getExperienceBetweenLevels(targetLevel, currentLevel);
                         if (totalXPToStore <= 0) break;
 
-                        int playerTotalXP = com.rsring.util.XpHelper.getPlayerTotalExperience(player);
+                        int playerTotalXP = ledger.getTotal(player);
                         int targetTotalXP = com.rsring.util.XpHelper.getExperienceForLevel(targetLevel);
                         if (playerTotalXP <= targetTotalXP) break;
                         totalXPToStore = Math.min(totalXPToStore, playerTotalXP - targetTotalXP);
@@ -261,7 +264,7 @@ public class PacketPumpAction implements IMessage {
                             IExperiencePumpCapability cap = tankStack.getCapability(ExperiencePumpCapability.EXPERIENCE_PUMP_CAPABILITY, null);
                             if (cap == null) continue;
 
-                            int availableSpace = cap.getMaxXp() - cap.getXpStored();
+                            int availableSpace = cap.getFreeSpace();
                             if (availableSpace <= 0) continue;
 
                             int store = Math.min(availableSpace, totalXPToStore);
@@ -269,7 +272,7 @@ public class PacketPumpAction implements IMessage {
                             if (stored > 0) {
                                 totalStored += stored;
                                 totalXPToStore -= stored;
-                                com.rsring.util.XpHelper.removeExperienceFromPlayer(player, stored);
+                                ledger.remove(player, stored);
                                 ItemExperiencePump.syncCapabilityToStack(tankStack, cap);
                                 syncTankBack(tankStack, tankLocations.get(tankStack), player);
                             }
@@ -323,20 +326,21 @@ public class PacketPumpAction implements IMessage {
 
     private void pumpExperienceBetweenPlayerAndTank(EntityPlayer player, IExperiencePumpCapability cap) {
             int retain = cap.getRetainLevel();
-            int playerTotal = com.rsring.util.XpHelper.getPlayerTotalExperience(player);
+            PlayerXpLedger ledger = PlayerXpLedger.getInstance();
+            int playerTotal = ledger.getTotal(player);
             int targetXp = com.rsring.util.XpHelper.getExperienceForLevel(retain);
 
             if (cap.getMode() == IExperiencePumpCapability.MODE_PUMP_FROM_PLAYER) {
-                int take = Math.min(playerTotal - targetXp, cap.getMaxXp() - cap.getXpStored());
+                int take = Math.min(playerTotal - targetXp, cap.getFreeSpace());
                 if (take > 0) {
-                    com.rsring.util.XpHelper.removeExperienceFromPlayer(player, take);
+                    ledger.remove(player, take);
                     cap.addXp(take);
                 }
             } else if (cap.getMode() == IExperiencePumpCapability.MODE_PUMP_TO_PLAYER) {
                 int need = targetXp - playerTotal;
                 int give = cap.takeXp(Math.min(need, 100));
                 if (give > 0) {
-                    com.rsring.util.XpHelper.addExperienceToPlayer(player, give);
+                    ledger.add(player, give);
                 }
             }
         }
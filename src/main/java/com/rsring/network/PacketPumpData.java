@@ -17,7 +17,7 @@ import net.minecraftforge.fml.relauncher.SideOnly;
 public class PacketPumpData implements IMessage {
 
     private int handOrdinal;
-    private int xpStored;
+    private long xpStored;
     private int capacityLevels;
     private int mode;
     private int retainLevel;
@@ -47,7 +47,7 @@ public class PacketPumpData implements IMessage {
     @Override
     public void fromBytes(ByteBuf buf) {
         handOrdinal = buf.readByte();
-        xpStored = buf.readInt();
+        xpStored = buf.readLong();
         capacityLevels = buf.readInt();
         mode = buf.readByte();
         retainLevel = buf.readInt();
@@ -57,7 +57,7 @@ public class PacketPumpData implements IMessage {
     @Override
     public void toBytes(ByteBuf buf) {
         buf.writeByte(handOrdinal);
-        buf.writeInt(xpStored);
+        buf.writeLong(xpStored);
         buf.writeInt(capacityLevels);
         buf.writeByte(mode);
         buf.writeInt(retainLevel);
@@ -65,23 +65,16 @@ public class PacketPumpData implements IMessage {
     }
 
     public int getHandOrdinal() { return handOrdinal; }
-    public int getXpStored() { return xpStored; }
+    public long getXpStored() { return xpStored; }
     public int getCapacityLevels() { return capacityLevels; }
     public int getMode() { return mode; }
     public int getRetainLevel() { return retainLevel; }
     public boolean isUseForMending() { return useForMending; }
-    public int getMaxXp() {
+    public long getMaxXp() {
         // 使用指数增长公式：BASE_XP_PER_LEVEL * 2^(capacityLevels-1)
         if (capacityLevels <= 0) return com.rsring.capability.IExperiencePumpCapability.BASE_XP_PER_LEVEL;
-        try {
-            long maxCapacity = (long) com.rsring.capability.IExperiencePumpCapability.BASE_XP_PER_LEVEL * (1L << (capacityLevels - 1));
-            if (maxCapacity > Integer.MAX_VALUE) {
-                return Integer.MAX_VALUE;
-            }
-            return (int) maxCapacity;
-        } catch (Exception e) {
-            return Integer.MAX_VALUE;
-        }
+        // 等级上限为 25，long 不会溢出
+        return (long) com.rsring.capability.IExperiencePumpCapability.BASE_XP_PER_LEVEL << (Math.min(capacityLevels, 25) - 1);
     }
 
     public static class Handler implements IMessageHandler<PacketPumpData, IMessage> {
@@ -39,6 +39,7 @@ import com.rsring.config.ExperienceTankConfig;
 import net.minecraftforge.fml.common.SidedProxy;
 import com.rsring.experience.InventoryChangeHandler;
 import com.rsring.experience.ExperienceTankManager;
+import com.rsring.util.RefinedStorageBridge;
 
 @Mod(modid = RsRingMod.MODID, name = RsRingMod.NAME, version = RsRingMod.VERSION, guiFactory = "com.rsring.client.GuiFactory")
 public class RsRingMod
@@ -123,8 +124,19 @@ public class RsRingMod
         NetworkRegistry.INSTANCE.registerGuiHandler(this, new com.rsring.client.GuiHandler());
 
         // 初始化经验系统基础设施
+        com.rsring.experience.PlayerSessionManager.initialize();
+        com.rsring.experience.PlayerXpLedger.initialize();
+        com.rsring.service.TickBudgetScheduler.initialize();
         InventoryChangeHandler.initialize();
         ExperienceTankManager.initialize();
+        RefinedStorageBridge.initialize();
+        com.rsring.util.TargetInventoryCache.initialize();
+        com.rsring.service.AbsorptionScheduler.initialize();
+        com.rsring.service.ItemCaptureQueue.initialize();
+        com.rsring.service.TargetAvailabilityTracker.initialize();
+        com.rsring.experience.PlayerTankIndex.initialize();
+        com.rsring.service.XpOrbScheduler.initialize();
+        com.rsring.experience.MendingCandidateIndex.initialize();
 
         // 注册经验泵控制器的合成配方
         new CraftingExperiencePumpController().registerRecipes();
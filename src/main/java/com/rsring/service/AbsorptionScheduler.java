@@ -0,0 +1,230 @@
+package com.rsring.service;
+
+import com.rsring.capability.IRsRingCapability;
+import com.rsring.capability.RingFilterMatcher;
+import com.rsring.item.ItemAbsorbRing;
+import com.rsring.util.TargetInventoryCache;
+import net.minecraft.entity.Entity;
+import net.minecraft.entity.item.EntityItem;
+import net.minecraft.entity.player.EntityPlayer;
+import net.minecraft.item.ItemStack;
+import net.minecraft.util.ClassInheritanceMultiMap;
+import net.minecraft.util.math.AxisAlignedBB;
+import net.minecraft.util.math.BlockPos;
+import net.minecraft.util.math.ChunkPos;
+import net.minecraft.util.math.MathHelper;
+import net.minecraft.world.World;
+import net.minecraft.world.chunk.Chunk;
+import net.minecraftforge.common.DimensionManager;
+import net.minecraftforge.common.MinecraftForge;
+import net.minecraftforge.fml.common.eventhandler.SubscribeEvent;
+import net.minecraftforge.fml.common.gameevent.TickEvent;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.util.*;
+
+/**
+ * 全服吸收调度器。
+ * 戒指在玩家 tick 中只登记吸收请求，服务器 tick 结束时统一处理：
+ * 每个被覆盖的已加载区块只扫描一次掉落物，每个掉落物只分配给一个符合条件（范围 + 过滤 + 目标未拒收）的最近戒指。
+ * 开销随掉落物数量增长，而不是 玩家数 × 掉落物数。
+ * 开启 eventDrivenCapture 时不再扫描区块，改为读取 {@link ItemCaptureQueue} 中的新掉落物。
+ */
+public class AbsorptionScheduler {
+
+    private static final Logger LOGGER = LogManager.getLogger(AbsorptionScheduler.class);
+    private static AbsorptionScheduler instance;
+
+    /** 与 World.getEntitiesWithinAABB 一致的实体半径余量 */
+    private static final double MAX_ENTITY_RADIUS = 2.0D;
+
+    private final List<AbsorbRequest> pending = new ArrayList<>();
+
+    private AbsorptionScheduler() {
+        MinecraftForge.EVENT_BUS.register(this);
+    }
+
+    public static AbsorptionScheduler getInstance() {
+        if (instance == null) instance = new AbsorptionScheduler();
+        return instance;
+    }
+
+    public static void initialize() {
+        getInstance();
+        LOGGER.info("Absorption scheduler initialized");
+    }
+
+    /**
+     * 登记一次吸收请求，在本服务器 tick 结束时处理。
+     */
+    public void schedule(EntityPlayer player, ItemAbsorbRing ring, IRsRingCapability capability) {
+        if (player == null || ring == null || capability == null) return;
+        pending.add(new AbsorbRequest(player, ring, capability));
+    }
+
+    @SubscribeEvent
+    public void onServerTick(TickEvent.ServerTickEvent event) {
+        if (event.phase != TickEvent.Phase.END || pending.isEmpty()) return;
+
+        List<AbsorbRequest> requests = new ArrayList<>(pending);
+        pending.clear();
+
+        Map<World, List<AbsorbRequest>> byWorld = new IdentityHashMap<>();
+        for (AbsorbRequest request : requests) {
+            EntityPlayer player = request.player;
+            if (player.isDead || player.world == null || player.world.isRemote) continue;
+            request.prepare();
+            byWorld.computeIfAbsent(player.world, k -> new ArrayList<>()).add(request);
+        }
+
+        TickBudgetScheduler.getInstance().run(TickBudgetScheduler.Subsystem.RING_SWEEP, () -> {
+            for (Map.Entry<World, List<AbsorbRequest>> entry : byWorld.entrySet()) {
+                dispatch(entry.getKey(), entry.getValue());
+            }
+        });
+    }
+
+    private void dispatch(World world, List<AbsorbRequest> requests) {
+        boolean eventDriven = ItemCaptureQueue.isEnabled();
+        ItemCaptureQueue captureQueue = ItemCaptureQueue.getInstance();
+        // 事件驱动模式下没有新掉落物时直接跳过
+        if (eventDriven) {
+            captureQueue.rebucket(world);
+            if (captureQueue.isEmpty(world)) return;
+        }
+
+        // 戒指 -> 覆盖的区块
+        Map<ChunkPos, List<AbsorbRequest>> ringsByChunk = new HashMap<>();
+        for (AbsorbRequest request : requests) {
+            AxisAlignedBB box = request.box;
+            int minX = MathHelper.floor((box.minX - MAX_ENTITY_RADIUS) / 16.0D);
+            int maxX = MathHelper.floor((box.maxX + MAX_ENTITY_RADIUS) / 16.0D);
+            int minZ = MathHelper.floor((box.minZ - MAX_ENTITY_RADIUS) / 16.0D);
+            int maxZ = MathHelper.floor((box.maxZ + MAX_ENTITY_RADIUS) / 16.0D);
+            for (int cx = minX; cx <= maxX; cx++) {
+                for (int cz = minZ; cz <= maxZ; cz++) {
+                    ringsByChunk.computeIfAbsent(new ChunkPos(cx, cz), k -> new ArrayList<>()).add(request);
+                }
+            }
+        }
+
+        // 每个区块只扫描一次，掉落物分配给唯一的戒指
+        List<ChunkPos> drained = new ArrayList<>();
+        for (Map.Entry<ChunkPos, List<AbsorbRequest>> entry : ringsByChunk.entrySet()) {
+            ChunkPos pos = entry.getKey();
+            if (eventDriven) {
+                List<EntityItem> queue = captureQueue.getQueue(world, pos);
+                if (queue == null) continue;
+                assignItems(queue, entry.getValue());
+                drained.add(pos);
+            } else {
+                collectFromChunk(world, pos, entry.getValue());
+            }
+        }
+
+        long now = world.getTotalWorldTime();
+        for (AbsorbRequest request : requests) {
+            request.capability.getSweepTimer().recordSweep(now, !request.items.isEmpty());
+            if (!request.items.isEmpty()) {
+                request.ring.absorbItems(request.player, request.capability, request.items);
+            }
+        }
+
+        // 只有已吸收或已消失的掉落物出队；被过滤或未能插入的保留，
+        // 之后登记的戒指（能量恢复、过滤器修改、其他玩家走近）仍能处理，自然消失后由定期清理移除
+        for (ChunkPos pos : drained) {
+            captureQueue.drain(world, pos);
+        }
+    }
+
+    private void collectFromChunk(World world, ChunkPos pos, List<AbsorbRequest> candidates) {
+        Chunk chunk = world.getChunkProvider().getLoadedChunk(pos.x, pos.z);
+        if (chunk == null) return;
+
+        double minY = Double.MAX_VALUE;
+        double maxY = -Double.MAX_VALUE;
+        for (AbsorbRequest request : candidates) {
+            minY = Math.min(minY, request.box.minY);
+            maxY = Math.max(maxY, request.box.maxY);
+        }
+
+        ClassInheritanceMultiMap<Entity>[] sections = chunk.getEntityLists();
+        int minSection = MathHelper.clamp(MathHelper.floor((minY - MAX_ENTITY_RADIUS) / 16.0D), 0, sections.length - 1);
+        int maxSection = MathHelper.clamp(MathHelper.floor((maxY + MAX_ENTITY_RADIUS) / 16.0D), 0, sections.length - 1);
+
+        for (int section = minSection; section <= maxSection; section++) {
+            assignItems(sections[section].getByClass(EntityItem.class), candidates);
+        }
+    }
+
+    private void assignItems(Iterable<EntityItem> items, List<AbsorbRequest> candidates) {
+        for (EntityItem item : items) {
+            if (item.isDead || item.getItem().isEmpty()) continue;
+            AbsorbRequest owner = selectRing(candidates, item);
+            if (owner != null) {
+                owner.items.add(item);
+            }
+        }
+    }
+
+    /**
+     * 选择范围覆盖该掉落物、过滤器允许、且绑定目标近期未拒收该类物品的最近戒指。
+     * 目标拒收的戒指不参与分配，掉落物交给其他目标仍能接收的戒指，而不是每次都分给同一个戒指留在地上。
+     */
+    private AbsorbRequest selectRing(List<AbsorbRequest> candidates, EntityItem item) {
+        AbsorbRequest best = null;
+        double bestDistance = Double.MAX_VALUE;
+        AxisAlignedBB itemBox = item.getEntityBoundingBox();
+        for (AbsorbRequest request : candidates) {
+            if (!request.box.intersects(itemBox)) continue;
+            if (request.filter.shouldFilter(item.getItem())) continue;
+            if (request.rejects(item.getItem())) continue;
+            double distance = request.player.getDistanceSq(item);
+            if (distance < bestDistance) {
+                bestDistance = distance;
+                best = request;
+            }
+        }
+        return best;
+    }
+
+    private static class AbsorbRequest {
+        private final EntityPlayer player;
+        private final ItemAbsorbRing ring;
+        private final IRsRingCapability capability;
+        private final List<EntityItem> items = new ArrayList<>();
+        private AxisAlignedBB box;
+        private RingFilterMatcher filter;
+        private World targetWorld;
+        private BlockPos targetPos;
+        private long worldTime;
+
+        AbsorbRequest(EntityPlayer player, ItemAbsorbRing ring, IRsRingCapability capability) {
+            this.player = player;
+            this.ring = ring;
+            this.capability = capability;
+        }
+
+        /** 使用处理时玩家的位置计算吸收范围 */
+        void prepare() {
+            double range = Math.max(1.0D, com.rsring.config.RsRingConfig.absorbRing.absorptionRange);
+            this.box = player.getEntityBoundingBox().grow(range);
+            this.filter = capability.getFilterMatcher();
+            this.targetPos = capability.getTerminalPos();
+            World world = capability.getTerminalWorld();
+            this.targetWorld = world != null ? world : DimensionManager.getWorld(capability.getTerminalDimension());
+            this.worldTime = player.world.getTotalWorldTime();
+            if (targetWorld != null && targetPos != null && targetWorld.isBlockLoaded(targetPos)) {
+                // 目标腾出空间时先清空拒收记录，再参与分配
+                TargetInventoryCache.getInstance().checkContents(targetWorld, targetPos);
+            }
+        }
+
+        /** 绑定目标近期是否拒收过该类物品 */
+        boolean rejects(ItemStack stack) {
+            return targetWorld != null && targetPos != null
+                && TargetInventoryCache.getInstance().isRejected(targetWorld, targetPos, stack, worldTime);
+        }
+    }
+}
@@ -0,0 +1,169 @@
+package com.rsring.service;
+
+import net.minecraft.entity.item.EntityItem;
+import net.minecraft.util.math.ChunkPos;
+import net.minecraft.util.math.MathHelper;
+import net.minecraft.world.World;
+import net.minecraftforge.common.MinecraftForge;
+import net.minecraftforge.event.entity.EntityJoinWorldEvent;
+import net.minecraftforge.event.world.ChunkEvent;
+import net.minecraftforge.event.world.WorldEvent;
+import net.minecraftforge.fml.common.eventhandler.EventPriority;
+import net.minecraftforge.fml.common.eventhandler.SubscribeEvent;
+import net.minecraftforge.fml.common.gameevent.TickEvent;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.util.*;
+
+/**
+ * 事件驱动的掉落物捕获队列。
+ * EntityJoinWorldEvent 将新掉落物按所在区块入队，吸收调度器只读取戒指范围内区块的队列，
+ * 没有新掉落物时不产生任何扫描开销。被水流、活塞带到其他区块的掉落物在分配前按当前位置重新归类。
+ * 仅在配置 eventDrivenCapture 开启时生效。
+ */
+public class ItemCaptureQueue {
+
+    private static final Logger LOGGER = LogManager.getLogger(ItemCaptureQueue.class);
+    private static ItemCaptureQueue instance;
+
+    /** 清理已死亡实体的间隔（tick） */
+    private static final int PRUNE_INTERVAL = 600;
+
+    private final Map<Integer, Map<ChunkPos, List<EntityItem>>> queues = new HashMap<>();
+    private int tickCounter = 0;
+
+    private ItemCaptureQueue() {
+        MinecraftForge.EVENT_BUS.register(this);
+    }
+
+    public static ItemCaptureQueue getInstance() {
+        if (instance == null) instance = new ItemCaptureQueue();
+        return instance;
+    }
+
+    public static void initialize() {
+        getInstance();
+        LOGGER.info("Item capture queue initialized");
+    }
+
+    public static boolean isEnabled() {
+        return com.rsring.config.RsRingConfig.absorbRing.eventDrivenCapture;
+    }
+
+    @SubscribeEvent(priority = EventPriority.LOWEST)
+    public void onEntityJoinWorld(EntityJoinWorldEvent event) {
+        if (!isEnabled() || event.getWorld().isRemote) return;
+        if (!(event.getEntity() instanceof EntityItem)) return;
+
+        EntityItem item = (EntityItem) event.getEntity();
+        enqueue(queues.computeIfAbsent(event.getWorld().provider.getDimension(), k -> new HashMap<>()), item);
+    }
+
+    /**
+     * 将离开入队区块的掉落物移到其当前所在区块的队列，并移除已消失的掉落物。
+     * 每次分配前调用一次，只比较区块坐标。
+     */
+    public void rebucket(World world) {
+        Map<ChunkPos, List<EntityItem>> dimQueues = queues.get(world.provider.getDimension());
+        if (dimQueues == null || dimQueues.isEmpty()) return;
+
+        List<EntityItem> moved = null;
+        Iterator<Map.Entry<ChunkPos, List<EntityItem>>> it = dimQueues.entrySet().iterator();
+        while (it.hasNext()) {
+            Map.Entry<ChunkPos, List<EntityItem>> entry = it.next();
+            ChunkPos pos = entry.getKey();
+            Iterator<EntityItem> items = entry.getValue().iterator();
+            while (items.hasNext()) {
+                EntityItem item = items.next();
+                if (item.isDead || item.getItem().isEmpty()) {
+                    items.remove();
+                } else if ((MathHelper.floor(item.posX) >> 4) != pos.x || (MathHelper.floor(item.posZ) >> 4) != pos.z) {
+                    items.remove();
+                    if (moved == null) moved = new ArrayList<>();
+                    moved.add(item);
+                }
+            }
+            if (entry.getValue().isEmpty()) it.remove();
+        }
+
+        if (moved != null) {
+            for (EntityItem item : moved) {
+                enqueue(dimQueues, item);
+            }
+        }
+    }
+
+    private static void enqueue(Map<ChunkPos, List<EntityItem>> dimQueues, EntityItem item) {
+        ChunkPos pos = new ChunkPos(MathHelper.floor(item.posX) >> 4, MathHelper.floor(item.posZ) >> 4);
+        dimQueues.computeIfAbsent(pos, k -> new ArrayList<>()).add(item);
+    }
+
+    /**
+     * 获取指定区块的待吸收掉落物队列。
+     *
+     * @return 队列，没有待处理掉落物时为 null
+     */
+    public List<EntityItem> getQueue(World world, ChunkPos pos) {
+        Map<ChunkPos, List<EntityItem>> dimQueues = queues.get(world.provider.getDimension());
+        if (dimQueues == null) return null;
+        List<EntityItem> queue = dimQueues.get(pos);
+        return queue == null || queue.isEmpty() ? null : queue;
+    }
+
+    public boolean isEmpty(World world) {
+        Map<ChunkPos, List<EntityItem>> dimQueues = queues.get(world.provider.getDimension());
+        return dimQueues == null || dimQueues.isEmpty();
+    }
+
+    /**
+     * 移除已被吸收或已消失的掉落物。
+     */
+    public void drain(World world, ChunkPos pos) {
+        Map<ChunkPos, List<EntityItem>> dimQueues = queues.get(world.provider.getDimension());
+        if (dimQueues == null) return;
+        List<EntityItem> queue = dimQueues.get(pos);
+        if (queue == null) return;
+        queue.removeIf(item -> item.isDead || item.getItem().isEmpty());
+        if (queue.isEmpty()) {
+            dimQueues.remove(pos);
+        }
+    }
+
+    @SubscribeEvent
+    public void onChunkUnload(ChunkEvent.Unload event) {
+        World world = event.getWorld();
+        if (world == null || world.isRemote) return;
+        Map<ChunkPos, List<EntityItem>> dimQueues = queues.get(world.provider.getDimension());
+        if (dimQueues != null) {
+            dimQueues.remove(event.getChunk().getPos());
+        }
+    }
+
+    @SubscribeEvent
+    public void onWorldUnload(WorldEvent.Unload event) {
+        if (event.getWorld().isRemote) return;
+        queues.remove(event.getWorld().provider.getDimension());
+    }
+
+    @SubscribeEvent
+    public void onServerTick(TickEvent.ServerTickEvent event) {
+        if (event.phase != TickEvent.Phase.END) return;
+        if (++tickCounter % PRUNE_INTERVAL != 0) return;
+
+        if (!isEnabled()) {
+            queues.clear();
+            return;
+        }
+
+        // 无人经过的区块里的掉落物会自然消失，定期清理避免队列无限增长
+        for (Map<ChunkPos, List<EntityItem>> dimQueues : queues.values()) {
+            Iterator<List<EntityItem>> it = dimQueues.values().iterator();
+            while (it.hasNext()) {
+                List<EntityItem> queue = it.next();
+                queue.removeIf(item -> item.isDead || item.getItem().isEmpty());
+                if (queue.isEmpty()) it.remove();
+            }
+        }
+    }
+}
@@ -1,5 +1,7 @@
 package com.rsring.service;
 
+import com.rsring.experience.PlayerSession;
+import com.rsring.experience.PlayerSessionManager;
 import com.rsring.experience.RingDetectionResult;
 import com.rsring.item.ItemAbsorbRing;
 import net.minecraft.entity.player.EntityPlayer;
@@ -32,8 +34,7 @@ public class RingDetectionSystem {
     private static final Logger LOGGER = LogManager.getLogger(RingDetectionSystem.class);
     private static RingDetectionSystem instance;
     
-    // Ring detection cache to improve performance
-    private final Map<String, RingDetectionResult> detectionCache = new HashMap<>();
+    // Ring detection results are cached per player in PlayerSession
     private static final long CACHE_EXPIRY_MS = 1000; // Cache results for 1 second
     
     // Known ring classes for detection
@@ -70,8 +71,8 @@ public class RingDetectionSystem {
         }
         
         // Check cache first
-        String cacheKey = player.getUniqueID().toString();
-        RingDetectionResult cached = detectionCache.get(cacheKey);
+        PlayerSession session = PlayerSessionManager.getInstance().get(player);
+        RingDetectionResult cached = session.getRingDetection();
         if (cached != null && (System.currentTimeMillis() - cached.getDetectionTimestamp()) < CACHE_EXPIRY_MS) {
             LOGGER.debug("Returning cached ring detection result for player: {}", player.getName());
             return cached;
@@ -89,7 +90,7 @@ public class RingDetectionSystem {
         RingDetectionResult result = resultBuilder.build();
         
         // Cache the result
-        detectionCache.put(cacheKey, result);
+        session.setRingDetection(result);
         
         LOGGER.debug("Ring scan complete for player {}: found {} rings in {} locations", 
                     player.getName(), result.getRingCount(), result.getRingsByLocation().size());
@@ -189,8 +190,9 @@ public class RingDetectionSystem {
      * @param player The player whose cache should be cleared
      */
     public void clearCache(EntityPlayer player) {
-        if (player != null) {
-            detectionCache.remove(player.getUniqueID().toString());
+        PlayerSession session = PlayerSessionManager.getInstance().peek(player);
+        if (session != null) {
+            session.setRingDetection(null);
             LOGGER.debug("Cleared ring detection cache for player: {}", player.getName());
         }
     }
@@ -199,7 +201,7 @@ public class RingDetectionSystem {
      * Clears all detection cache entries.
      */
     public void clearAllCache() {
-        detectionCache.clear();
+        PlayerSessionManager.getInstance().clearRingDetections();
         LOGGER.debug("Cleared all ring detection cache entries");
     }
     
@@ -0,0 +1,155 @@
+package com.rsring.service;
+
+import com.rsring.rsring.RsRingMod;
+import net.minecraft.util.math.BlockPos;
+import net.minecraft.util.math.ChunkPos;
+import net.minecraft.world.World;
+import net.minecraftforge.common.DimensionManager;
+import net.minecraftforge.common.ForgeChunkManager;
+import net.minecraftforge.common.MinecraftForge;
+import net.minecraftforge.event.world.ChunkEvent;
+import net.minecraftforge.event.world.WorldEvent;
+import net.minecraftforge.fml.common.eventhandler.SubscribeEvent;
+import net.minecraftforge.fml.common.gameevent.TickEvent;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.util.*;
+
+/**
+ * 戒指绑定目标的可用性追踪。
+ * 通过 ChunkEvent.Load/Unload 维护各维度已加载的区块集合，戒指只需一次集合查找即可判断目标是否可用，
+ * 不会在玩家 tick 中加载或生成目标区块。
+ * 开启 forceLoadTargetChunk 时改为通过 ForgeChunkManager 票据显式加载目标区块，长时间无人使用后释放。
+ */
+public class TargetAvailabilityTracker implements ForgeChunkManager.LoadingCallback {
+
+    private static final Logger LOGGER = LogManager.getLogger(TargetAvailabilityTracker.class);
+    private static TargetAvailabilityTracker instance;
+
+    /** 票据在多少 tick 无人请求后释放 */
+    private static final int TICKET_TIMEOUT = 600;
+    private static final int RELEASE_CHECK_INTERVAL = 20;
+
+    private final Map<Integer, Set<Long>> loadedChunks = new HashMap<>();
+    private final Map<Integer, Map<Long, ForcedChunk>> forcedChunks = new HashMap<>();
+    private long serverTicks = 0;
+
+    private TargetAvailabilityTracker() {
+        MinecraftForge.EVENT_BUS.register(this);
+    }
+
+    public static TargetAvailabilityTracker getInstance() {
+        if (instance == null) instance = new TargetAvailabilityTracker();
+        return instance;
+    }
+
+    public static void initialize() {
+        ForgeChunkManager.setForcedChunkLoadingCallback(RsRingMod.instance, getInstance());
+        LOGGER.info("Target availability tracker initialized");
+    }
+
+    /**
+     * 获取目标所在的世界，目标区块未加载时返回 null。
+     * 未开启 forceLoadTargetChunk 时不会加载任何区块。
+     */
+    public World getAvailableWorld(int dimension, BlockPos pos) {
+        if (pos == null) return null;
+        long chunkKey = ChunkPos.asLong(pos.getX() >> 4, pos.getZ() >> 4);
+
+        World world = DimensionManager.getWorld(dimension);
+        if (world == null || world.isRemote) return null;
+
+        if (com.rsring.config.RsRingConfig.absorbRing.forceLoadTargetChunk) {
+            keepLoaded(world, dimension, chunkKey, pos);
+        }
+
+        Set<Long> chunks = loadedChunks.get(dimension);
+        return chunks != null && chunks.contains(chunkKey) ? world : null;
+    }
+
+    private void keepLoaded(World world, int dimension, long chunkKey, BlockPos pos) {
+        Map<Long, ForcedChunk> dimForced = forcedChunks.computeIfAbsent(dimension, k -> new HashMap<>());
+        ForcedChunk forced = dimForced.get(chunkKey);
+        if (forced == null) {
+            ForgeChunkManager.Ticket ticket = ForgeChunkManager.requestTicket(RsRingMod.instance, world, ForgeChunkManager.Type.NORMAL);
+            if (ticket == null) {
+                LOGGER.debug("No chunk loading ticket available for ring target at {} in dimension {}", pos, dimension);
+                return;
+            }
+            ChunkPos chunkPos = new ChunkPos(pos);
+            ForgeChunkManager.forceChunk(ticket, chunkPos);
+            forced = new ForcedChunk(ticket, chunkPos);
+            dimForced.put(chunkKey, forced);
+        }
+        forced.lastRequested = serverTicks;
+    }
+
+    @Override
+    public void ticketsLoaded(List<ForgeChunkManager.Ticket> tickets, World world) {
+        // 票据按需重新申请，不恢复上次存档时的强制加载
+        for (ForgeChunkManager.Ticket ticket : tickets) {
+            ForgeChunkManager.releaseTicket(ticket);
+        }
+    }
+
+    @SubscribeEvent
+    public void onChunkLoad(ChunkEvent.Load event) {
+        World world = event.getWorld();
+        if (world == null || world.isRemote) return;
+        ChunkPos pos = event.getChunk().getPos();
+        loadedChunks.computeIfAbsent(world.provider.getDimension(), k -> new HashSet<>())
+            .add(ChunkPos.asLong(pos.x, pos.z));
+    }
+
+    @SubscribeEvent
+    public void onChunkUnload(ChunkEvent.Unload event) {
+        World world = event.getWorld();
+        if (world == null || world.isRemote) return;
+        Set<Long> chunks = loadedChunks.get(world.provider.getDimension());
+        if (chunks != null) {
+            ChunkPos pos = event.getChunk().getPos();
+            chunks.remove(ChunkPos.asLong(pos.x, pos.z));
+        }
+    }
+
+    @SubscribeEvent
+    public void onWorldUnload(WorldEvent.Unload event) {
+        if (event.getWorld().isRemote) return;
+        int dimension = event.getWorld().provider.getDimension();
+        loadedChunks.remove(dimension);
+        // 世界卸载时 Forge 会一并丢弃该世界的票据
+        forcedChunks.remove(dimension);
+    }
+
+    @SubscribeEvent
+    public void onServerTick(TickEvent.ServerTickEvent event) {
+        if (event.phase != TickEvent.Phase.END) return;
+        serverTicks++;
+        if (serverTicks % RELEASE_CHECK_INTERVAL != 0 || forcedChunks.isEmpty()) return;
+
+        boolean enabled = com.rsring.config.RsRingConfig.absorbRing.forceLoadTargetChunk;
+        for (Map<Long, ForcedChunk> dimForced : forcedChunks.values()) {
+            Iterator<ForcedChunk> it = dimForced.values().iterator();
+            while (it.hasNext()) {
+                ForcedChunk forced = it.next();
+                if (!enabled || serverTicks - forced.lastRequested > TICKET_TIMEOUT) {
+                    ForgeChunkManager.unforceChunk(forced.ticket, forced.pos);
+                    ForgeChunkManager.releaseTicket(forced.ticket);
+                    it.remove();
+                }
+            }
+        }
+    }
+
+    private static class ForcedChunk {
+        private final ForgeChunkManager.Ticket ticket;
+        private final ChunkPos pos;
+        private long lastRequested;
+
+        ForcedChunk(ForgeChunkManager.Ticket ticket, ChunkPos pos) {
+            this.ticket = ticket;
+            this.pos = pos;
+        }
+    }
+}
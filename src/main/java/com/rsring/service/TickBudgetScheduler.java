@@ -0,0 +1,230 @@
+package com.rsring.service;
+
+import com.rsring.experience.PlayerSession;
+import com.rsring.experience.PlayerSessionManager;
+import net.minecraft.entity.player.EntityPlayer;
+import net.minecraftforge.common.MinecraftForge;
+import net.minecraftforge.fml.common.eventhandler.EventPriority;
+import net.minecraftforge.fml.common.eventhandler.SubscribeEvent;
+import net.minecraftforge.fml.common.gameevent.PlayerEvent;
+import net.minecraftforge.fml.common.gameevent.TickEvent;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.util.*;
+
+/**
+ * 服务器 tick 时间预算调度器。
+ * 必需的工作（戒指扫描、经验抽取、控制器泵送）通过 {@link #run} 立即执行并计入本 tick 用时；
+ * 可延后的工作（经验修补、物品栏快照）通过 {@link #defer} 按子系统入队，在服务器 tick 结束时用剩余预算轮流执行，
+ * 预算用完的留到下一 tick，并累计延后次数。{@link #isDue} 按玩家会话分配的相位错开各玩家的周期性工作。
+ */
+public class TickBudgetScheduler {
+
+    private static final Logger LOGGER = LogManager.getLogger(TickBudgetScheduler.class);
+    private static TickBudgetScheduler instance;
+
+    /** 排队超过该 tick 数的工作即使预算用完也会执行，避免低优先级工作饿死 */
+    private static final int MAX_DEFER_TICKS = 100;
+    /** 统计日志输出间隔（tick） */
+    private static final int STATS_LOG_INTERVAL = 6000;
+
+    public enum Subsystem {
+        RING_SWEEP(false),
+        PUMP_EXTRACTION(false),
+        CONTROLLER_PUMPING(false),
+        MENDING(true),
+        INVENTORY_SNAPSHOT(true);
+
+        private final boolean deferrable;
+
+        Subsystem(boolean deferrable) {
+            this.deferrable = deferrable;
+        }
+
+        public boolean isDeferrable() {
+            return deferrable;
+        }
+    }
+
+    private static final Subsystem[] SUBSYSTEMS = Subsystem.values();
+
+    /** 可延后子系统的工作队列，同一玩家只保留最新的一项 */
+    private final EnumMap<Subsystem, LinkedHashMap<UUID, DeferredWork>> queues = new EnumMap<>(Subsystem.class);
+    private final long[] executedCounts = new long[SUBSYSTEMS.length];
+    private final long[] deferredCounts = new long[SUBSYSTEMS.length];
+    private final long[] elapsedNanos = new long[SUBSYSTEMS.length];
+
+    private long serverTicks;
+    private long tickNanosUsed;
+    private boolean deferredSinceLastLog;
+
+    private TickBudgetScheduler() {
+        for (Subsystem subsystem : SUBSYSTEMS) {
+            if (subsystem.isDeferrable()) {
+                queues.put(subsystem, new LinkedHashMap<>());
+            }
+        }
+        MinecraftForge.EVENT_BUS.register(this);
+    }
+
+    public static TickBudgetScheduler getInstance() {
+        if (instance == null) instance = new TickBudgetScheduler();
+        return instance;
+    }
+
+    public static void initialize() {
+        getInstance();
+        LOGGER.info("Tick budget scheduler initialized");
+    }
+
+    /**
+     * 玩家的周期性工作是否在本 tick 执行。
+     * 每个玩家会话有固定相位，相同间隔的工作在各玩家之间均匀错开，而不是集中在同一 tick。
+     */
+    public boolean isDue(EntityPlayer player, int interval) {
+        if (interval <= 1) return true;
+        PlayerSession session = PlayerSessionManager.getInstance().get(player);
+        return (serverTicks + session.getTickPhase()) % interval == 0;
+    }
+
+    /**
+     * 立即执行必需的工作，并计入本 tick 的用时。
+     */
+    public void run(Subsystem subsystem, Runnable work) {
+        long start = System.nanoTime();
+        try {
+            work.run();
+        } finally {
+            record(subsystem, System.nanoTime() - start);
+        }
+    }
+
+    /**
+     * 登记可延后的工作，在服务器 tick 结束时按剩余预算执行；同一玩家重复登记时替换为最新的一项。
+     * 不可延后的子系统直接执行。
+     */
+    public void defer(Subsystem subsystem, EntityPlayer player, Runnable work) {
+        if (player == null || work == null) return;
+        if (!subsystem.isDeferrable()) {
+            run(subsystem, work);
+            return;
+        }
+        LinkedHashMap<UUID, DeferredWork> queue = queues.get(subsystem);
+        DeferredWork existing = queue.get(player.getUniqueID());
+        long queuedAt = existing != null ? existing.queuedAt : serverTicks;
+        queue.put(player.getUniqueID(), new DeferredWork(player, work, queuedAt));
+    }
+
+    @SubscribeEvent
+    public void onServerTick(TickEvent.ServerTickEvent event) {
+        if (event.phase == TickEvent.Phase.START) {
+            serverTicks++;
+            tickNanosUsed = 0;
+        }
+    }
+
+    /**
+     * 在其他调度器的 tick 结束处理之后执行，预算中已包含它们的用时。
+     */
+    @SubscribeEvent(priority = EventPriority.LOWEST)
+    public void onServerTickEnd(TickEvent.ServerTickEvent event) {
+        if (event.phase != TickEvent.Phase.END) return;
+
+        long budget = getBudgetNanos();
+        boolean progressed = true;
+        // 各子系统轮流取一项，预算内尽量执行
+        while (progressed) {
+            progressed = false;
+            for (Subsystem subsystem : SUBSYSTEMS) {
+                if (!subsystem.isDeferrable()) continue;
+                Iterator<DeferredWork> it = queues.get(subsystem).values().iterator();
+                if (!it.hasNext()) continue;
+                DeferredWork work = it.next();
+                boolean overdue = serverTicks - work.queuedAt >= MAX_DEFER_TICKS;
+                if (budget > 0 && tickNanosUsed >= budget && !overdue) continue;
+                it.remove();
+                if (work.player.isDead) continue;
+                run(subsystem, work.work);
+                progressed = true;
+            }
+        }
+
+        for (Subsystem subsystem : SUBSYSTEMS) {
+            if (!subsystem.isDeferrable()) continue;
+            int remaining = queues.get(subsystem).size();
+            if (remaining > 0) {
+                deferredCounts[subsystem.ordinal()] += remaining;
+                deferredSinceLastLog = true;
+            }
+        }
+
+        if (serverTicks % STATS_LOG_INTERVAL == 0 && deferredSinceLastLog) {
+            deferredSinceLastLog = false;
+            LOGGER.debug(getStatsSummary());
+        }
+    }
+
+    @SubscribeEvent
+    public void onPlayerLoggedOut(PlayerEvent.PlayerLoggedOutEvent event) {
+        if (event.player == null) return;
+        for (LinkedHashMap<UUID, DeferredWork> queue : queues.values()) {
+            queue.remove(event.player.getUniqueID());
+        }
+    }
+
+    /** 子系统已执行的工作次数 */
+    public long getExecutedCount(Subsystem subsystem) {
+        return executedCounts[subsystem.ordinal()];
+    }
+
+    /** 子系统的工作因预算用完而留到下一 tick 的累计次数（每项每 tick 计一次） */
+    public long getDeferredCount(Subsystem subsystem) {
+        return deferredCounts[subsystem.ordinal()];
+    }
+
+    /** 子系统累计用时（纳秒） */
+    public long getElapsedNanos(Subsystem subsystem) {
+        return elapsedNanos[subsystem.ordinal()];
+    }
+
+    /** 子系统当前排队中的工作数量 */
+    public int getQueuedCount(Subsystem subsystem) {
+        LinkedHashMap<UUID, DeferredWork> queue = queues.get(subsystem);
+        return queue == null ? 0 : queue.size();
+    }
+
+    public String getStatsSummary() {
+        StringBuilder sb = new StringBuilder("TickBudgetScheduler: budget=")
+            .append(com.rsring.config.RsRingConfig.performance.tickBudgetMs).append("ms");
+        for (Subsystem subsystem : SUBSYSTEMS) {
+            sb.append(String.format(", %s[executed=%d, deferred=%d, queued=%d, time=%.1fms]",
+                subsystem.name(), getExecutedCount(subsystem), getDeferredCount(subsystem),
+                getQueuedCount(subsystem), getElapsedNanos(subsystem) / 1_000_000.0D));
+        }
+        return sb.toString();
+    }
+
+    private void record(Subsystem subsystem, long nanos) {
+        executedCounts[subsystem.ordinal()]++;
+        elapsedNanos[subsystem.ordinal()] += nanos;
+        tickNanosUsed += nanos;
+    }
+
+    private static long getBudgetNanos() {
+        double ms = com.rsring.config.RsRingConfig.performance.tickBudgetMs;
+        return ms <= 0 ? 0L : (long) (ms * 1_000_000.0D);
+    }
+
+    private static class DeferredWork {
+        private final EntityPlayer player;
+        private final Runnable work;
+        private final long queuedAt;
+
+        DeferredWork(EntityPlayer player, Runnable work, long queuedAt) {
+            this.player = player;
+            this.work = work;
+            this.queuedAt = queuedAt;
+        }
+    }
+}
@@ -0,0 +1,179 @@
+package com.rsring.service;
+
+import com.rsring.capability.IExperiencePumpCapability;
+import com.rsring.item.ItemExperiencePump;
+import net.minecraft.entity.item.EntityXPOrb;
+import net.minecraft.entity.player.EntityPlayer;
+import net.minecraft.item.ItemStack;
+import net.minecraft.util.ClassInheritanceMultiMap;
+import net.minecraft.util.math.AxisAlignedBB;
+import net.minecraft.util.math.ChunkPos;
+import net.minecraft.util.math.MathHelper;
+import net.minecraft.world.World;
+import net.minecraft.world.chunk.Chunk;
+import net.minecraftforge.common.MinecraftForge;
+import net.minecraftforge.fml.common.eventhandler.SubscribeEvent;
+import net.minecraftforge.fml.common.gameevent.TickEvent;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.util.*;
+
+/**
+ * 全服经验球分配器。
+ * 经验储罐在玩家 tick 中只登记抽取请求，服务器 tick 结束时按世界统一处理：
+ * 被覆盖的区块段只遍历一次经验球，每个经验球只分配给范围覆盖它、且仍有余量的最近储罐。
+ * 多名玩家在同一经验农场时不再争抢同一批经验球，开销随经验球数量增长，而不是 玩家数 × 经验球数。
+ */
+public class XpOrbScheduler {
+
+    private static final Logger LOGGER = LogManager.getLogger(XpOrbScheduler.class);
+    private static XpOrbScheduler instance;
+
+    /** 与 World.getEntitiesWithinAABB 一致的实体半径余量 */
+    private static final double MAX_ENTITY_RADIUS = 2.0D;
+
+    private final List<ExtractRequest> pending = new ArrayList<>();
+
+    private XpOrbScheduler() {
+        MinecraftForge.EVENT_BUS.register(this);
+    }
+
+    public static XpOrbScheduler getInstance() {
+        if (instance == null) instance = new XpOrbScheduler();
+        return instance;
+    }
+
+    public static void initialize() {
+        getInstance();
+        LOGGER.info("XP orb scheduler initialized");
+    }
+
+    /**
+     * 登记一次经验抽取请求，在本服务器 tick 结束时处理。
+     */
+    public void schedule(EntityPlayer player, ItemExperiencePump pump, ItemStack stack, IExperiencePumpCapability capability) {
+        if (player == null || pump == null || stack.isEmpty() || capability == null) return;
+        pending.add(new ExtractRequest(player, pump, stack, capability));
+    }
+
+    @SubscribeEvent
+    public void onServerTick(TickEvent.ServerTickEvent event) {
+        if (event.phase != TickEvent.Phase.END || pending.isEmpty()) return;
+
+        List<ExtractRequest> requests = new ArrayList<>(pending);
+        pending.clear();
+
+        Map<World, List<ExtractRequest>> byWorld = new IdentityHashMap<>();
+        for (ExtractRequest request : requests) {
+            EntityPlayer player = request.player;
+            if (player.isDead || player.world == null || player.world.isRemote || request.stack.isEmpty()) continue;
+            request.prepare();
+            byWorld.computeIfAbsent(player.world, k -> new ArrayList<>()).add(request);
+        }
+
+        TickBudgetScheduler.getInstance().run(TickBudgetScheduler.Subsystem.PUMP_EXTRACTION, () -> {
+            for (Map.Entry<World, List<ExtractRequest>> entry : byWorld.entrySet()) {
+                dispatch(entry.getKey(), entry.getValue());
+            }
+        });
+    }
+
+    private void dispatch(World world, List<ExtractRequest> requests) {
+        // 储罐 -> 覆盖的区块
+        Map<ChunkPos, List<ExtractRequest>> pumpsByChunk = new HashMap<>();
+        for (ExtractRequest request : requests) {
+            if (request.remaining <= 0) continue;
+            AxisAlignedBB box = request.box;
+            int minX = MathHelper.floor((box.minX - MAX_ENTITY_RADIUS) / 16.0D);
+            int maxX = MathHelper.floor((box.maxX + MAX_ENTITY_RADIUS) / 16.0D);
+            int minZ = MathHelper.floor((box.minZ - MAX_ENTITY_RADIUS) / 16.0D);
+            int maxZ = MathHelper.floor((box.maxZ + MAX_ENTITY_RADIUS) / 16.0D);
+            for (int cx = minX; cx <= maxX; cx++) {
+                for (int cz = minZ; cz <= maxZ; cz++) {
+                    pumpsByChunk.computeIfAbsent(new ChunkPos(cx, cz), k -> new ArrayList<>()).add(request);
+                }
+            }
+        }
+
+        // 每个区块段只遍历一次，经验球分配给唯一的储罐
+        for (Map.Entry<ChunkPos, List<ExtractRequest>> entry : pumpsByChunk.entrySet()) {
+            collectFromChunk(world, entry.getKey(), entry.getValue());
+        }
+
+        // 没有分到经验球的储罐仍要处理经验瓶
+        for (ExtractRequest request : requests) {
+            request.pump.extractScheduledXp(request.player, request.stack, request.capability, request.orbs);
+        }
+    }
+
+    private void collectFromChunk(World world, ChunkPos pos, List<ExtractRequest> candidates) {
+        Chunk chunk = world.getChunkProvider().getLoadedChunk(pos.x, pos.z);
+        if (chunk == null) return;
+
+        double minY = Double.MAX_VALUE;
+        double maxY = -Double.MAX_VALUE;
+        for (ExtractRequest request : candidates) {
+            minY = Math.min(minY, request.box.minY);
+            maxY = Math.max(maxY, request.box.maxY);
+        }
+
+        ClassInheritanceMultiMap<net.minecraft.entity.Entity>[] sections = chunk.getEntityLists();
+        int minSection = MathHelper.clamp(MathHelper.floor((minY - MAX_ENTITY_RADIUS) / 16.0D), 0, sections.length - 1);
+        int maxSection = MathHelper.clamp(MathHelper.floor((maxY + MAX_ENTITY_RADIUS) / 16.0D), 0, sections.length - 1);
+
+        for (int section = minSection; section <= maxSection; section++) {
+            for (EntityXPOrb orb : sections[section].getByClass(EntityXPOrb.class)) {
+                if (orb.isDead || orb.xpValue <= 0) continue;
+                ExtractRequest owner = selectPump(candidates, orb);
+                if (owner != null) {
+                    owner.orbs.add(orb);
+                    owner.remaining -= orb.xpValue;
+                }
+            }
+        }
+    }
+
+    /**
+     * 选择范围覆盖该经验球、且本次仍有抽取余量的最近储罐。
+     */
+    private ExtractRequest selectPump(List<ExtractRequest> candidates, EntityXPOrb orb) {
+        ExtractRequest best = null;
+        double bestDistance = Double.MAX_VALUE;
+        AxisAlignedBB orbBox = orb.getEntityBoundingBox();
+        for (ExtractRequest request : candidates) {
+            if (request.remaining <= 0 || !request.box.intersects(orbBox)) continue;
+            double distance = request.player.getDistanceSq(orb);
+            if (distance < bestDistance) {
+                bestDistance = distance;
+                best = request;
+            }
+        }
+        return best;
+    }
+
+    private static class ExtractRequest {
+        private final EntityPlayer player;
+        private final ItemExperiencePump pump;
+        private final ItemStack stack;
+        private final IExperiencePumpCapability capability;
+        private final List<EntityXPOrb> orbs = new ArrayList<>();
+        private AxisAlignedBB box;
+        /** 本次还能分配的经验量（抽取预算与储罐剩余空间取小） */
+        private long remaining;
+
+        ExtractRequest(EntityPlayer player, ItemExperiencePump pump, ItemStack stack, IExperiencePumpCapability capability) {
+            this.player = player;
+            this.pump = pump;
+            this.stack = stack;
+            this.capability = capability;
+        }
+
+        /** 使用处理时玩家的位置计算抽取范围 */
+        void prepare() {
+            double range = com.rsring.config.ExperienceTankConfig.tank.xpExtractionRange;
+            this.box = player.getEntityBoundingBox().grow(range);
+            this.remaining = Math.min(ItemExperiencePump.getExtractionBudget(), capability.getFreeSpace());
+        }
+    }
+}
@@ -0,0 +1,299 @@
+package com.rsring.util;
+
+import net.minecraft.item.ItemStack;
+import net.minecraft.tileentity.TileEntity;
+import net.minecraft.util.math.BlockPos;
+import net.minecraft.util.math.ChunkPos;
+import net.minecraft.world.World;
+import net.minecraftforge.common.MinecraftForge;
+import net.minecraftforge.common.capabilities.Capability;
+import net.minecraftforge.event.world.BlockEvent;
+import net.minecraftforge.event.world.ChunkEvent;
+import net.minecraftforge.event.world.WorldEvent;
+import net.minecraftforge.fml.common.Loader;
+import net.minecraftforge.fml.common.eventhandler.SubscribeEvent;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Method;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+
+/**
+ * Refined Storage 桥接层。
+ * 启动时一次性解析 RS API 的类与 MethodHandle，按 (维度, 控制器坐标) 缓存解析出的 INetwork，
+ * 方块变化、区块卸载或世界卸载时失效。仍通过反射访问，避免对 RS 的硬依赖。
+ */
+public final class RefinedStorageBridge {
+
+    private static final Logger LOGGER = LogManager.getLogger(RefinedStorageBridge.class);
+    private static RefinedStorageBridge instance;
+
+    private static final String API_CLASS = "com.raoulvdberge.refinedstorage.apiimpl.API";
+    private static final String RS_API_CLASS = "com.raoulvdberge.refinedstorage.api.IRSAPI";
+    private static final String NODE_MANAGER_CLASS = "com.raoulvdberge.refinedstorage.api.network.INetworkNodeManager";
+    private static final String NODE_CLASS = "com.raoulvdberge.refinedstorage.api.network.node.INetworkNode";
+    private static final String NODE_PROXY_CLASS = "com.raoulvdberge.refinedstorage.api.network.node.INetworkNodeProxy";
+    private static final String NODE_PROXY_CAPABILITY_CLASS = "com.raoulvdberge.refinedstorage.capability.CapabilityNetworkNodeProxy";
+    private static final String NETWORK_CLASS = "com.raoulvdberge.refinedstorage.api.network.INetwork";
+    private static final String ACTION_CLASS = "com.raoulvdberge.refinedstorage.api.util.Action";
+    private static final String STORAGE_CLASS = "com.raoulvdberge.refinedstorage.api.storage.IStorage";
+
+    private boolean available = false;
+
+    private Object api;
+    private MethodHandle getNetworkNodeManager; // (Object api, World) -> Object
+    private MethodHandle getNode;               // (Object manager, BlockPos) -> Object
+    private MethodHandle nodeGetNetwork;        // (Object node) -> Object
+    private MethodHandle proxyGetNode;          // (Object proxy) -> Object
+    private Capability<?> nodeProxyCapability;
+    private Class<?> networkClass;
+    private MethodHandle insertItem;            // (Object network, ItemStack, int, Object action) -> ItemStack
+    private Object actionPerform;
+    private MethodHandle getItemStorageCache;   // (Object network) -> Object
+    private MethodHandle cacheGetStorages;      // (Object cache) -> Collection
+    private MethodHandle storageGetStored;      // (Object storage) -> int
+
+    private final Map<Integer, Map<BlockPos, Object>> networkCache = new HashMap<>();
+
+    private RefinedStorageBridge() {
+        MinecraftForge.EVENT_BUS.register(this);
+        resolve();
+    }
+
+    public static RefinedStorageBridge getInstance() {
+        if (instance == null) instance = new RefinedStorageBridge();
+        return instance;
+    }
+
+    public static void initialize() {
+        RefinedStorageBridge bridge = getInstance();
+        LOGGER.info("Refined Storage bridge initialized (available: {})", bridge.available);
+    }
+
+    public boolean isAvailable() {
+        return available;
+    }
+
+    /**
+     * 将物品插入绑定位置的 RS 网络。
+     *
+     * @return 实际插入的数量
+     */
+    public int insertItem(World world, BlockPos pos, ItemStack stack) {
+        if (!available || world == null || pos == null || stack.isEmpty()) return 0;
+
+        Object network = getNetwork(world, pos);
+        if (network == null) return 0;
+
+        try {
+            ItemStack remainder = (ItemStack) insertItem.invokeExact((Object) network, stack.copy(),
+                stack.getCount(), actionPerform);
+            if (remainder == null) {
+                return stack.getCount();
+            }
+            return Math.max(0, stack.getCount() - remainder.getCount());
+        } catch (Throwable t) {
+            LOGGER.debug("Failed to insert into RS network at {}: {}", pos, t.toString());
+            invalidate(world, pos);
+            return 0;
+        }
+    }
+
+    /**
+     * 绑定位置的 RS 网络中各物品存储的已存数量之和，只遍历存储（磁盘、外部存储）而不遍历物品。
+     *
+     * @return 已存物品总数，无法获取时返回 -1
+     */
+    public long getStoredCount(World world, BlockPos pos) {
+        if (!available || getItemStorageCache == null || cacheGetStorages == null || storageGetStored == null) return -1;
+
+        Object network = getNetwork(world, pos);
+        if (network == null) return -1;
+
+        try {
+            Object storageCache = (Object) getItemStorageCache.invokeExact(network);
+            if (storageCache == null) return -1;
+            Collection<?> storages = (Collection<?>) cacheGetStorages.invokeExact(storageCache);
+            long total = 0;
+            for (Object storage : storages) {
+                total += (int) storageGetStored.invokeExact(storage);
+            }
+            return total;
+        } catch (Throwable t) {
+            LOGGER.debug("Failed to read RS storage count at {}: {}", pos, t.toString());
+            return -1;
+        }
+    }
+
+    /**
+     * 获取 (维度, 坐标) 对应的 INetwork，未命中时解析一次并缓存。
+     */
+    public Object getNetwork(World world, BlockPos pos) {
+        if (!available || world == null || pos == null) return null;
+
+        Map<BlockPos, Object> dimCache = networkCache.computeIfAbsent(world.provider.getDimension(), k -> new HashMap<>());
+        Object network = dimCache.get(pos);
+        if (network != null) return network;
+
+        network = resolveNetwork(world, pos);
+        if (network != null) {
+            dimCache.put(pos.toImmutable(), network);
+        }
+        return network;
+    }
+
+    public void invalidate(World world, BlockPos pos) {
+        if (world == null || pos == null) return;
+        Map<BlockPos, Object> dimCache = networkCache.get(world.provider.getDimension());
+        if (dimCache != null) {
+            dimCache.remove(pos);
+        }
+    }
+
+    @SubscribeEvent
+    public void onNeighborNotify(BlockEvent.NeighborNotifyEvent event) {
+        if (event.getWorld().isRemote || networkCache.isEmpty()) return;
+        invalidate(event.getWorld(), event.getPos());
+    }
+
+    @SubscribeEvent
+    public void onChunkUnload(ChunkEvent.Unload event) {
+        World world = event.getWorld();
+        if (world == null || world.isRemote) return;
+        Map<BlockPos, Object> dimCache = networkCache.get(world.provider.getDimension());
+        if (dimCache == null || dimCache.isEmpty()) return;
+
+        ChunkPos chunkPos = event.getChunk().getPos();
+        Iterator<BlockPos> it = dimCache.keySet().iterator();
+        while (it.hasNext()) {
+            BlockPos pos = it.next();
+            if ((pos.getX() >> 4) == chunkPos.x && (pos.getZ() >> 4) == chunkPos.z) {
+                it.remove();
+            }
+        }
+    }
+
+    @SubscribeEvent
+    public void onWorldUnload(WorldEvent.Unload event) {
+        if (event.getWorld().isRemote) return;
+        networkCache.remove(event.getWorld().provider.getDimension());
+    }
+
+    private Object resolveNetwork(World world, BlockPos pos) {
+        // 节点管理器：INetworkNodeManager.getNode(pos).getNetwork()
+        if (getNetworkNodeManager != null && getNode != null && nodeGetNetwork != null) {
+            try {
+                Object manager = (Object) getNetworkNodeManager.invokeExact(api, world);
+                Object node = manager != null ? (Object) getNode.invokeExact(manager, pos) : null;
+                Object network = node != null ? (Object) nodeGetNetwork.invokeExact(node) : null;
+                if (network != null) return network;
+            } catch (Throwable t) {
+                LOGGER.debug("Failed to resolve RS network from node manager at {}: {}", pos, t.toString());
+            }
+        }
+
+        TileEntity te = world.getTileEntity(pos);
+        if (te == null) return null;
+
+        // 控制器本身即为 INetwork
+        if (networkClass.isInstance(te)) {
+            return te;
+        }
+
+        // INetworkNodeProxy 能力：getNode().getNetwork()
+        if (nodeProxyCapability != null && proxyGetNode != null && nodeGetNetwork != null) {
+            try {
+                Object proxy = te.getCapability(nodeProxyCapability, null);
+                Object node = proxy != null ? (Object) proxyGetNode.invokeExact(proxy) : null;
+                Object network = node != null ? (Object) nodeGetNetwork.invokeExact(node) : null;
+                if (network != null) return network;
+            } catch (Throwable t) {
+                LOGGER.debug("Failed to resolve RS network from tile at {}: {}", pos, t.toString());
+            }
+        }
+
+        return null;
+    }
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private void resolve() {
+        if (!Loader.isModLoaded("refinedstorage")) return;
+
+        MethodHandles.Lookup lookup = MethodHandles.publicLookup();
+        try {
+            networkClass = Class.forName(NETWORK_CLASS);
+            Class<?> actionClass = Class.forName(ACTION_CLASS);
+            actionPerform = Enum.valueOf((Class<? extends Enum>) actionClass, "PERFORM");
+
+            // RS 1.6.x: insertItem(ItemStack, int, Action)，部分版本为 long
+            Method insert;
+            try {
+                insert = networkClass.getMethod("insertItem", ItemStack.class, int.class, actionClass);
+            } catch (NoSuchMethodException e) {
+                insert = networkClass.getMethod("insertItem", ItemStack.class, long.class, actionClass);
+            }
+            insertItem = lookup.unreflect(insert).asType(
+                MethodType.methodType(ItemStack.class, Object.class, ItemStack.class, int.class, Object.class));
+        } catch (Throwable t) {
+            LOGGER.warn("Refined Storage is loaded but its network API could not be resolved: {}", t.toString());
+            return;
+        }
+
+        try {
+            // 存储缓存接口的包名在各版本间不同，从返回类型获取
+            Method getCache = networkClass.getMethod("getItemStorageCache");
+            getItemStorageCache = lookup.unreflect(getCache)
+                .asType(MethodType.methodType(Object.class, Object.class));
+            cacheGetStorages = lookup.unreflect(getCache.getReturnType().getMethod("getStorages"))
+                .asType(MethodType.methodType(Collection.class, Object.class));
+            storageGetStored = lookup.unreflect(Class.forName(STORAGE_CLASS).getMethod("getStored"))
+                .asType(MethodType.methodType(int.class, Object.class));
+        } catch (Throwable t) {
+            getItemStorageCache = null;
+            cacheGetStorages = null;
+            storageGetStored = null;
+            LOGGER.debug("RS storage count lookup unavailable: {}", t.toString());
+        }
+
+        try {
+            nodeGetNetwork = lookup.unreflect(Class.forName(NODE_CLASS).getMethod("getNetwork"))
+                .asType(MethodType.methodType(Object.class, Object.class));
+        } catch (Throwable t) {
+            nodeGetNetwork = null;
+            LOGGER.debug("RS network node lookup unavailable: {}", t.toString());
+        }
+
+        try {
+            api = Class.forName(API_CLASS).getMethod("instance").invoke(null);
+            Class<?> rsApiClass = Class.forName(RS_API_CLASS);
+            Class<?> managerClass = Class.forName(NODE_MANAGER_CLASS);
+            getNetworkNodeManager = lookup.unreflect(rsApiClass.getMethod("getNetworkNodeManager", World.class))
+                .asType(MethodType.methodType(Object.class, Object.class, World.class));
+            getNode = lookup.unreflect(managerClass.getMethod("getNode", BlockPos.class))
+                .asType(MethodType.methodType(Object.class, Object.class, BlockPos.class));
+        } catch (Throwable t) {
+            getNetworkNodeManager = null;
+            getNode = null;
+            LOGGER.debug("RS node manager lookup unavailable: {}", t.toString());
+        }
+
+        try {
+            nodeProxyCapability = (Capability<?>) Class.forName(NODE_PROXY_CAPABILITY_CLASS)
+                .getField("NETWORK_NODE_PROXY_CAPABILITY").get(null);
+            proxyGetNode = lookup.unreflect(Class.forName(NODE_PROXY_CLASS).getMethod("getNode"))
+                .asType(MethodType.methodType(Object.class, Object.class));
+        } catch (Throwable t) {
+            nodeProxyCapability = null;
+            proxyGetNode = null;
+            LOGGER.debug("RS node proxy capability unavailable: {}", t.toString());
+        }
+
+        available = true;
+    }
+}
@@ -0,0 +1,274 @@
+package com.rsring.util;
+
+import net.minecraft.item.Item;
+import net.minecraft.item.ItemStack;
+import net.minecraft.nbt.NBTTagCompound;
+import net.minecraft.tileentity.TileEntity;
+import net.minecraft.util.EnumFacing;
+import net.minecraft.util.ResourceLocation;
+import net.minecraft.util.math.BlockPos;
+import net.minecraft.util.math.ChunkPos;
+import net.minecraft.world.World;
+import net.minecraftforge.common.MinecraftForge;
+import net.minecraftforge.event.world.BlockEvent;
+import net.minecraftforge.event.world.ChunkEvent;
+import net.minecraftforge.event.world.WorldEvent;
+import net.minecraftforge.fml.common.eventhandler.SubscribeEvent;
+import net.minecraftforge.items.CapabilityItemHandler;
+import net.minecraftforge.items.IItemHandler;
+import net.minecraftforge.items.ItemHandlerHelper;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * 戒指绑定目标的缓存。
+ * 按 (维度, 坐标) 记住目标方块是否为 RS 控制器、上次接受插入的朝向对应的 IItemHandler，
+ * 插入时直接使用缓存的 handler，只有插入失败时才重新探测各个朝向。
+ * 同时记录目标近期拒收的物品类型，在 rejectCacheTicks 内跳过这些物品的插入尝试；
+ * 目标内的物品总数减少（被取出、腾出空间）时清空拒收记录。
+ * 目标或相邻方块变化、TileEntity 失效、区块卸载时缓存失效。
+ */
+public final class TargetInventoryCache {
+
+    private static final Logger LOGGER = LogManager.getLogger(TargetInventoryCache.class);
+    private static TargetInventoryCache instance;
+
+    private static final String RS_CONTROLLER = "refinedstorage:controller";
+
+    private final Map<Integer, Map<BlockPos, Target>> cache = new HashMap<>();
+
+    private TargetInventoryCache() {
+        MinecraftForge.EVENT_BUS.register(this);
+    }
+
+    public static TargetInventoryCache getInstance() {
+        if (instance == null) instance = new TargetInventoryCache();
+        return instance;
+    }
+
+    public static void initialize() {
+        getInstance();
+        LOGGER.info("Target inventory cache initialized");
+    }
+
+    /**
+     * 目标方块是否为 RS 控制器（结果随方块变化失效）。
+     */
+    public boolean isRSController(World world, BlockPos pos) {
+        Target target = getTarget(world, pos);
+        return target != null && target.rsController;
+    }
+
+    /**
+     * 将物品插入目标方块的物品 handler。
+     *
+     * @return 实际插入的数量
+     */
+    public int insertItem(World world, BlockPos pos, ItemStack stack) {
+        if (world == null || pos == null || stack.isEmpty()) return 0;
+        Target target = getTarget(world, pos);
+        if (target == null || target.tile == null) return 0;
+
+        if (target.handler != null) {
+            int inserted = insert(target.handler, stack);
+            if (inserted > 0) return inserted;
+        }
+
+        // 缓存的 handler 不接受时按原顺序探测各朝向，并记住接受插入的那一个
+        for (EnumFacing facing : EnumFacing.VALUES) {
+            int inserted = probe(target, facing, stack);
+            if (inserted > 0) return inserted;
+        }
+        return probe(target, null, stack);
+    }
+
+    /**
+     * 目标近期是否拒收过该类物品（物品 + meta + NBT）。
+     */
+    public boolean isRejected(World world, BlockPos pos, ItemStack stack, long worldTime) {
+        if (world == null || pos == null || stack.isEmpty()) return false;
+        Map<BlockPos, Target> dimCache = cache.get(world.provider.getDimension());
+        Target target = dimCache != null ? dimCache.get(pos) : null;
+        if (target == null || target.rejectedUntil == null) return false;
+
+        RejectKey key = new RejectKey(stack);
+        Long until = target.rejectedUntil.get(key);
+        if (until == null) return false;
+        if (worldTime < until) return true;
+        target.rejectedUntil.remove(key);
+        return false;
+    }
+
+    /**
+     * 记录目标拒收了该类物品，在配置的 tick 数内不再尝试。
+     */
+    public void markRejected(World world, BlockPos pos, ItemStack stack, long worldTime) {
+        int ttl = com.rsring.config.RsRingConfig.absorbRing.rejectCacheTicks;
+        if (ttl <= 0 || stack.isEmpty()) return;
+        Target target = getTarget(world, pos);
+        if (target == null) return;
+        if (target.rejectedUntil == null) target.rejectedUntil = new HashMap<>();
+        if (target.rejectedUntil.isEmpty()) {
+            target.storedCount = getStoredCount(world, pos, target);
+        }
+        target.rejectedUntil.put(new RejectKey(stack), worldTime + ttl);
+    }
+
+    /**
+     * 检查目标内容是否有物品被取出，有则清空拒收记录，下次插入时重新尝试。
+     * 每次扫描调用一次；只比较物品总数，本模组自己的插入只会让总数增加，不会误清。
+     */
+    public void checkContents(World world, BlockPos pos) {
+        if (world == null || pos == null) return;
+        Map<BlockPos, Target> dimCache = cache.get(world.provider.getDimension());
+        Target target = dimCache != null ? dimCache.get(pos) : null;
+        if (target == null || target.rejectedUntil == null || target.rejectedUntil.isEmpty()) return;
+
+        long stored = getStoredCount(world, pos, target);
+        if (stored >= 0 && target.storedCount >= 0 && stored < target.storedCount) {
+            target.rejectedUntil.clear();
+        }
+        target.storedCount = stored;
+    }
+
+    public void invalidate(World world, BlockPos pos) {
+        if (world == null || pos == null) return;
+        Map<BlockPos, Target> dimCache = cache.get(world.provider.getDimension());
+        if (dimCache != null) {
+            dimCache.remove(pos);
+        }
+    }
+
+    private Target getTarget(World world, BlockPos pos) {
+        if (world == null || pos == null) return null;
+        Map<BlockPos, Target> dimCache = cache.computeIfAbsent(world.provider.getDimension(), k -> new HashMap<>());
+        Target target = dimCache.get(pos);
+        if (target != null && (target.tile == null || !target.tile.isInvalid())) {
+            return target;
+        }
+
+        target = new Target();
+        ResourceLocation regName = world.getBlockState(pos).getBlock().getRegistryName();
+        target.rsController = regName != null && RS_CONTROLLER.equals(regName.toString().toLowerCase());
+        target.tile = world.getTileEntity(pos);
+        dimCache.put(pos.toImmutable(), target);
+        return target;
+    }
+
+    /**
+     * 目标内的物品总数：RS 控制器为网络各存储的已存数量之和，普通容器为各槽位数量之和；无法获取时返回 -1。
+     */
+    private static long getStoredCount(World world, BlockPos pos, Target target) {
+        if (target.rsController) {
+            return RefinedStorageBridge.getInstance().getStoredCount(world, pos);
+        }
+        IItemHandler handler = target.handler;
+        if (handler == null && target.tile != null
+            && target.tile.hasCapability(CapabilityItemHandler.ITEM_HANDLER_CAPABILITY, null)) {
+            handler = target.tile.getCapability(CapabilityItemHandler.ITEM_HANDLER_CAPABILITY, null);
+        }
+        if (handler == null) return -1;
+        long total = 0;
+        for (int i = 0; i < handler.getSlots(); i++) {
+            total += handler.getStackInSlot(i).getCount();
+        }
+        return total;
+    }
+
+    private int probe(Target target, EnumFacing facing, ItemStack stack) {
+        TileEntity te = target.tile;
+        if (!te.hasCapability(CapabilityItemHandler.ITEM_HANDLER_CAPABILITY, facing)) return 0;
+        IItemHandler handler = te.getCapability(CapabilityItemHandler.ITEM_HANDLER_CAPABILITY, facing);
+        if (handler == null || handler == target.handler) return 0;
+        int inserted = insert(handler, stack);
+        if (inserted > 0) {
+            target.handler = handler;
+        }
+        return inserted;
+    }
+
+    private static int insert(IItemHandler handler, ItemStack stack) {
+        if (handler.getSlots() == 0) return 0;
+        int before = stack.getCount();
+        ItemStack remainder = ItemHandlerHelper.insertItemStacked(handler, stack.copy(), false);
+        int inserted = before - remainder.getCount();
+        if (inserted > 0) stack.setCount(remainder.getCount());
+        return inserted;
+    }
+
+    @SubscribeEvent
+    public void onNeighborNotify(BlockEvent.NeighborNotifyEvent event) {
+        if (event.getWorld().isRemote || cache.isEmpty()) return;
+        World world = event.getWorld();
+        BlockPos pos = event.getPos();
+        // 目标本身或相邻方块（如大箱子的另一半）变化都可能改变 handler
+        invalidate(world, pos);
+        for (EnumFacing facing : EnumFacing.VALUES) {
+            invalidate(world, pos.offset(facing));
+        }
+    }
+
+    @SubscribeEvent
+    public void onChunkUnload(ChunkEvent.Unload event) {
+        World world = event.getWorld();
+        if (world == null || world.isRemote) return;
+        Map<BlockPos, Target> dimCache = cache.get(world.provider.getDimension());
+        if (dimCache == null || dimCache.isEmpty()) return;
+
+        ChunkPos chunkPos = event.getChunk().getPos();
+        Iterator<BlockPos> it = dimCache.keySet().iterator();
+        while (it.hasNext()) {
+            BlockPos pos = it.next();
+            if ((pos.getX() >> 4) == chunkPos.x && (pos.getZ() >> 4) == chunkPos.z) {
+                it.remove();
+            }
+        }
+    }
+
+    @SubscribeEvent
+    public void onWorldUnload(WorldEvent.Unload event) {
+        if (event.getWorld().isRemote) return;
+        cache.remove(event.getWorld().provider.getDimension());
+    }
+
+    private static class Target {
+        private boolean rsController;
+        private TileEntity tile;
+        /** 上次接受插入的朝向对应的 handler */
+        private IItemHandler handler;
+        /** 拒收的物品类型 -> 到期时间（世界总 tick） */
+        private Map<RejectKey, Long> rejectedUntil;
+        /** 上次检查时目标内的物品总数，-1 表示未知 */
+        private long storedCount = -1;
+    }
+
+    private static final class RejectKey {
+        private final Item item;
+        private final int meta;
+        private final NBTTagCompound tag;
+
+        RejectKey(ItemStack stack) {
+            this.item = stack.getItem();
+            this.meta = stack.getMetadata();
+            this.tag = stack.getTagCompound();
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (!(o instanceof RejectKey)) return false;
+            RejectKey other = (RejectKey) o;
+            return item == other.item && meta == other.meta && Objects.equals(tag, other.tag);
+        }
+
+        @Override
+        public int hashCode() {
+            return System.identityHashCode(item) * 31 + meta;
+        }
+    }
+}
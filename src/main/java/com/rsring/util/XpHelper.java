@@ -49,6 +49,11 @@ public class XpHelper {
      * @return 达到该等级所需的总经验点数
      */
     public static int getExperienceForLevel(int level) {
+        // 以 long 计算，超大等级时截断到 int 上限而不是溢出为负数
+        return (int) Math.min(Integer.MAX_VALUE, experienceForLevel(level));
+    }
+
+    private static long experienceForLevel(long level) {
         if (level == 0) {
             return 0;
         }
@@ -88,11 +93,29 @@ public class XpHelper {
      * @return 对应的等级
      */
     public static int getLevelForExperience(int experience) {
-        int i = 0;
-        while (getExperienceForLevel(i) <= experience) {
-            i++;
+        if (experience < 0) {
+            return -1;
+        }
+        // 三段二次公式的反函数：
+        // 0-16级：XP = L² + 6L                → L = √(XP + 9) - 3
+        // 16-31级：2XP = 5L² - 81L + 720     → L = (81 + √(40XP - 7839)) / 10
+        // 31+级：2XP = 9L² - 325L + 4440     → L = (325 + √(72XP - 54215)) / 18
+        int level;
+        if (experience < 352) {
+            level = (int) (Math.sqrt(experience + 9.0D) - 3.0D);
+        } else if (experience < 1507) {
+            level = (int) ((81.0D + Math.sqrt(40.0D * experience - 7839.0D)) / 10.0D);
+        } else {
+            level = (int) ((325.0D + Math.sqrt(72.0D * experience - 54215.0D)) / 18.0D);
+        }
+        // 浮点误差修正，最多移动一级
+        while (level > 0 && experienceForLevel(level) > experience) {
+            level--;
+        }
+        while (experienceForLevel(level + 1) <= experience) {
+            level++;
         }
-        return i - 1;
+        return level;
     }
     
     /**
@@ -0,0 +1,109 @@
+package com.rsring.util;
+
+import com.pholser.junit.quickcheck.Property;
+import com.pholser.junit.quickcheck.generator.InRange;
+import com.pholser.junit.quickcheck.runner.JUnitQuickcheck;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * {@link XpHelper#getLevelForExperience} 闭式反函数与原逐级累加实现的对照测试。
+ */
+@RunWith(JUnitQuickcheck.class)
+public class XpHelperTest {
+
+    /**
+     * 原实现：从 0 级逐级累加，直到所需经验超过给定值。
+     * 原公式以 int 计算，超过约 10 亿经验时溢出；这里改用 long 计算，使对照覆盖整个 int 范围。
+     */
+    private static int loopLevel(int experience) {
+        int i = 0;
+        while (experienceForLevel(i) <= experience) {
+            i++;
+        }
+        return i - 1;
+    }
+
+    private static long experienceForLevel(long level) {
+        if (level == 0) {
+            return 0;
+        }
+        if (level > 0 && level < 16) {
+            return level * (12 + level * 2) / 2;
+        } else if (level > 15 && level < 31) {
+            return (level - 15) * (69 + (level - 15) * 5) / 2 + 315;
+        } else {
+            return (level - 30) * (215 + (level - 30) * 9) / 2 + 1395;
+        }
+    }
+
+    @Property(trials = 2000)
+    public void matchesLoopOverIntRange(@InRange(minInt = 0) int experience) {
+        assertEquals(loopLevel(experience), XpHelper.getLevelForExperience(experience));
+    }
+
+    @Property(trials = 2000)
+    public void matchesLoopForLowLevels(@InRange(minInt = 0, maxInt = 2000) int experience) {
+        assertEquals(loopLevel(experience), XpHelper.getLevelForExperience(experience));
+    }
+
+    @Test
+    public void matchesLoopForSmallValues() {
+        for (int experience = -5; experience <= 100000; experience++) {
+            assertEquals("experience " + experience, loopLevel(experience), XpHelper.getLevelForExperience(experience));
+        }
+    }
+
+    /**
+     * 每个等级分界两侧各取两点。逐级累加在分界前返回上一级、从分界起返回该级，
+     * 这里直接按此断言，避免对两万多个分界逐个跑累加循环。
+     */
+    @Test
+    public void matchesLoopAroundEveryLevelBoundary() {
+        for (int level = 1; experienceForLevel(level) <= Integer.MAX_VALUE; level++) {
+            long boundary = experienceForLevel(level);
+            long last = Math.min(Integer.MAX_VALUE, boundary + 2);
+            for (long value = Math.max(0, boundary - 2); value <= last; value++) {
+                int expected = value < boundary ? level - 1 : level;
+                assertEquals("experience " + value, expected, XpHelper.getLevelForExperience((int) value));
+            }
+        }
+    }
+
+    @Test
+    public void piecewiseBoundaries() {
+        // 15/16 级：第一段与第二段的分界
+        assertEquals(315, XpHelper.getExperienceForLevel(15));
+        assertEquals(352, XpHelper.getExperienceForLevel(16));
+        assertEquals(394, XpHelper.getExperienceForLevel(17));
+        assertEquals(15, XpHelper.getLevelForExperience(351));
+        assertEquals(16, XpHelper.getLevelForExperience(352));
+        assertEquals(16, XpHelper.getLevelForExperience(393));
+        assertEquals(17, XpHelper.getLevelForExperience(394));
+
+        // 30/31 级：第二段与第三段的分界
+        assertEquals(1395, XpHelper.getExperienceForLevel(30));
+        assertEquals(1507, XpHelper.getExperienceForLevel(31));
+        assertEquals(1628, XpHelper.getExperienceForLevel(32));
+        assertEquals(30, XpHelper.getLevelForExperience(1506));
+        assertEquals(31, XpHelper.getLevelForExperience(1507));
+        assertEquals(31, XpHelper.getLevelForExperience(1627));
+        assertEquals(32, XpHelper.getLevelForExperience(1628));
+    }
+
+    @Test
+    public void zeroAndNegative() {
+        assertEquals(0, XpHelper.getLevelForExperience(0));
+        assertEquals(0, XpHelper.getLevelForExperience(6));
+        assertEquals(1, XpHelper.getLevelForExperience(7));
+        assertEquals(-1, XpHelper.getLevelForExperience(-1));
+    }
+
+    @Test
+    public void maxValue() {
+        assertEquals(loopLevel(Integer.MAX_VALUE), XpHelper.getLevelForExperience(Integer.MAX_VALUE));
+        assertEquals(loopLevel(Integer.MAX_VALUE - 1), XpHelper.getLevelForExperience(Integer.MAX_VALUE - 1));
+    }
+}